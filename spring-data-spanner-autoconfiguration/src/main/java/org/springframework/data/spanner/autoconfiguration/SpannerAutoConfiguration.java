@@ -16,25 +16,85 @@
 
 package org.springframework.data.spanner.autoconfiguration;
 
+import com.google.cloud.spanner.DatabaseClient;
 import com.google.cloud.spanner.DatabaseId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.spanner.core.AbstractSpannerConfiguration;
+import org.springframework.data.spanner.core.SpannerTemplate;
+import org.springframework.data.spanner.core.SpannerTransactionManager;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.metrics.SpannerMetrics;
+import org.springframework.data.spanner.core.metrics.SpannerQueryStatsListener;
+import org.springframework.data.spanner.core.metrics.SpannerStatementStatistics;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * Created by rayt on 3/20/17.
+ * <p>
+ * Runs after the JDBC and JPA auto-configurations, so that the {@link SpannerTransactionManager} only becomes the
+ * transaction manager of applications that do not define one for another data source.
  */
 @Configuration
 @EnableConfigurationProperties(SpannerProperties.class)
+@AutoConfigureAfter({DataSourceTransactionManagerAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
 public class SpannerAutoConfiguration extends AbstractSpannerConfiguration {
   private final SpannerProperties properties;
+  private final ObjectProvider<SpannerMetrics> metrics;
+  private final ObjectProvider<SpannerStatementStatistics> statementStatistics;
+  private final ObjectProvider<SpannerQueryStatsListener> queryStatsListener;
 
-  public SpannerAutoConfiguration(SpannerProperties properties) {
+  public SpannerAutoConfiguration(SpannerProperties properties, ObjectProvider<SpannerMetrics> metrics,
+                                  ObjectProvider<SpannerStatementStatistics> statementStatistics,
+                                  ObjectProvider<SpannerQueryStatsListener> queryStatsListener) {
     this.properties = properties;
+    this.metrics = metrics;
+    this.statementStatistics = statementStatistics;
+    this.queryStatsListener = queryStatsListener;
   }
 
   @Override
   protected DatabaseId getDatabaseId() {
     return DatabaseId.of(properties.getProjectId(), properties.getInstanceId(), properties.getDatabase());
   }
+
+  @Bean
+  @Override
+  public SpannerTemplate spannerTemplate(DatabaseClient databaseClient, SpannerMappingContext mappingContext) {
+    SpannerTemplate spannerTemplate = super.spannerTemplate(databaseClient, mappingContext);
+    spannerTemplate.setWriteBatchSize(properties.getWriteBatchSize());
+    spannerTemplate.setMaxCommitCells(properties.getMaxCommitCells());
+    spannerTemplate.setRetryPolicy(properties.getRetry().toRetryPolicy());
+    spannerTemplate.setMetrics(metrics.getIfAvailable());
+    spannerTemplate.setStatementStatistics(statementStatistics.getIfAvailable());
+    spannerTemplate.setQueryStatsListener(queryStatsListener.getIfAvailable());
+    spannerTemplate.setProfileSampleRate(properties.getProfileSampleRate());
+    return spannerTemplate;
+  }
+
+  @Bean
+  @ConditionalOnMissingBean(PlatformTransactionManager.class)
+  public SpannerTransactionManager spannerTransactionManager(SpannerTemplate spannerTemplate) {
+    return new SpannerTransactionManager(spannerTemplate);
+  }
+
+  /**
+   * The statistics are exported over JMX along with the other managed beans of the application.
+   */
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "gcp.spanner.statement-statistics", name = "enabled", havingValue = "true")
+  public SpannerStatementStatistics spannerStatementStatistics() {
+    SpannerStatementStatistics statistics = new SpannerStatementStatistics();
+    statistics.setMaxStatements(properties.getStatementStatistics().getMaxStatements());
+    statistics.setSlowQueryThresholdMillis(properties.getStatementStatistics().getSlowQueryThresholdMillis());
+    return statistics;
+  }
 }
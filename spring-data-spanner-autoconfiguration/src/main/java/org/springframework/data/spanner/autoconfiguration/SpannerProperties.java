@@ -17,6 +17,9 @@
 package org.springframework.data.spanner.autoconfiguration;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.data.spanner.core.SpannerRetryPolicy;
+import org.springframework.data.spanner.core.SpannerTemplate;
+import org.springframework.data.spanner.core.metrics.SpannerStatementStatistics;
 
 /**
  * Created by rayt on 3/20/17.
@@ -26,6 +29,11 @@ public class SpannerProperties {
   private String projectId;
   private String instanceId;
   private String database;
+  private int writeBatchSize = SpannerTemplate.DEFAULT_WRITE_BATCH_SIZE;
+  private int maxCommitCells = SpannerTemplate.DEFAULT_MAX_COMMIT_CELLS;
+  private double profileSampleRate;
+  private final Retry retry = new Retry();
+  private final StatementStatistics statementStatistics = new StatementStatistics();
 
   public String getProjectId() {
     return projectId;
@@ -50,4 +58,143 @@ public class SpannerProperties {
   public void setDatabase(String database) {
     this.database = database;
   }
+
+  public int getWriteBatchSize() {
+    return writeBatchSize;
+  }
+
+  public void setWriteBatchSize(int writeBatchSize) {
+    this.writeBatchSize = writeBatchSize;
+  }
+
+  public int getMaxCommitCells() {
+    return maxCommitCells;
+  }
+
+  public void setMaxCommitCells(int maxCommitCells) {
+    this.maxCommitCells = maxCommitCells;
+  }
+
+  public double getProfileSampleRate() {
+    return profileSampleRate;
+  }
+
+  /**
+   * Sets the fraction of queries profiled when a SpannerQueryStatsListener is defined.
+   */
+  public void setProfileSampleRate(double profileSampleRate) {
+    this.profileSampleRate = profileSampleRate;
+  }
+
+  public Retry getRetry() {
+    return retry;
+  }
+
+  public StatementStatistics getStatementStatistics() {
+    return statementStatistics;
+  }
+
+  /**
+   * Retries of aborted writes and transactions, see {@link SpannerRetryPolicy}.
+   */
+  public static class Retry {
+    private int maxAttempts = SpannerRetryPolicy.DEFAULT_MAX_ATTEMPTS;
+    private long initialBackoffMillis = SpannerRetryPolicy.DEFAULT_INITIAL_BACKOFF_MILLIS;
+    private long maxBackoffMillis = SpannerRetryPolicy.DEFAULT_MAX_BACKOFF_MILLIS;
+    private double multiplier = SpannerRetryPolicy.DEFAULT_MULTIPLIER;
+    private double jitter = SpannerRetryPolicy.DEFAULT_JITTER;
+    private long deadlineMillis = SpannerRetryPolicy.DEFAULT_DEADLINE_MILLIS;
+
+    public int getMaxAttempts() {
+      return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+      this.maxAttempts = maxAttempts;
+    }
+
+    public long getInitialBackoffMillis() {
+      return initialBackoffMillis;
+    }
+
+    public void setInitialBackoffMillis(long initialBackoffMillis) {
+      this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+      return maxBackoffMillis;
+    }
+
+    public void setMaxBackoffMillis(long maxBackoffMillis) {
+      this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public double getMultiplier() {
+      return multiplier;
+    }
+
+    public void setMultiplier(double multiplier) {
+      this.multiplier = multiplier;
+    }
+
+    public double getJitter() {
+      return jitter;
+    }
+
+    public void setJitter(double jitter) {
+      this.jitter = jitter;
+    }
+
+    public long getDeadlineMillis() {
+      return deadlineMillis;
+    }
+
+    public void setDeadlineMillis(long deadlineMillis) {
+      this.deadlineMillis = deadlineMillis;
+    }
+
+    public SpannerRetryPolicy toRetryPolicy() {
+      SpannerRetryPolicy retryPolicy = new SpannerRetryPolicy();
+      retryPolicy.setMaxAttempts(maxAttempts);
+      retryPolicy.setInitialBackoffMillis(initialBackoffMillis);
+      retryPolicy.setMaxBackoffMillis(maxBackoffMillis);
+      retryPolicy.setMultiplier(multiplier);
+      retryPolicy.setJitter(jitter);
+      retryPolicy.setDeadlineMillis(deadlineMillis);
+      return retryPolicy;
+    }
+  }
+
+  /**
+   * Aggregation of executed statements and the slow query log, see {@link SpannerStatementStatistics}.
+   */
+  public static class StatementStatistics {
+    private boolean enabled;
+    private int maxStatements = SpannerStatementStatistics.DEFAULT_MAX_STATEMENTS;
+    private long slowQueryThresholdMillis = SpannerStatementStatistics.DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getMaxStatements() {
+      return maxStatements;
+    }
+
+    public void setMaxStatements(int maxStatements) {
+      this.maxStatements = maxStatements;
+    }
+
+    public long getSlowQueryThresholdMillis() {
+      return slowQueryThresholdMillis;
+    }
+
+    public void setSlowQueryThresholdMillis(long slowQueryThresholdMillis) {
+      this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    }
+  }
 }
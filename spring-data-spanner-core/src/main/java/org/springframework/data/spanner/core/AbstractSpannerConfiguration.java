@@ -20,8 +20,11 @@ import com.google.cloud.spanner.*;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.spanner.core.SpannerTemplate;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
 import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
 
+import java.util.Collections;
+
 /**
  * Created by rayt on 3/20/17.
  */
@@ -44,9 +47,20 @@ public abstract class AbstractSpannerConfiguration {
     return spanner.getDatabaseClient(getDatabaseId());
   }
 
+  /**
+   * Returns the conversions of property types Spanner does not support directly. Override to register additional
+   * converters.
+   */
+  @Bean
+  public SpannerCustomConversions spannerCustomConversions() {
+    return new SpannerCustomConversions(Collections.emptyList());
+  }
+
   @Bean
   public SpannerMappingContext spannerMappingContext() {
-    return new SpannerMappingContext();
+    SpannerMappingContext mappingContext = new SpannerMappingContext();
+    mappingContext.setCustomConversions(spannerCustomConversions());
+    return mappingContext;
   }
 
   @Bean
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Options;
+import com.google.cloud.spanner.Statement;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link SpannerOperations}. Every operation is submitted to an executor and completes the
+ * returned {@link CompletableFuture} with the result of the corresponding {@link SpannerOperations} call.
+ */
+public interface AsyncSpannerOperations {
+  SpannerOperations getSpannerOperations();
+
+  <T> CompletableFuture<T> find(Class<T> entityClass, Key key);
+  <T> CompletableFuture<List<T>> find(Class<T> entityClass, KeySet keys, Options.ReadOption... options);
+  <T> CompletableFuture<List<T>> find(Class<T> entityClass, Statement statement, Options.QueryOption... options);
+
+  <T> CompletableFuture<List<T>> findAll(Class<T> entityClass, Options.ReadOption... options);
+
+  <T> CompletableFuture<Void> delete(Class<T> entityClass, Key key);
+  <T> CompletableFuture<Void> delete(T object);
+
+  <T> CompletableFuture<Void> insert(T object);
+  <T> CompletableFuture<Void> upsert(T object);
+  <T> CompletableFuture<Long> count(Class<T> entityClass);
+}
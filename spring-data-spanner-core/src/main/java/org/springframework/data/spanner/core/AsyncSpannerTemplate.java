@@ -0,0 +1,185 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Options;
+import com.google.cloud.spanner.Statement;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * {@link AsyncSpannerOperations} implementation that runs the blocking {@link SpannerOperations} calls on a bounded
+ * executor. The number of operations in flight is capped; once the cap is reached, further operations fail fast with
+ * a future completed exceptionally with a {@link RejectedExecutionException}, which pushes back on producers without
+ * blocking them or queueing without limit.
+ * <p>
+ * The operations run on other threads, outside of any transaction or read-only snapshot of the caller, so calling
+ * this template while one is active on the current thread fails with an {@link IllegalStateException} instead of
+ * silently leaving it.
+ */
+public class AsyncSpannerTemplate implements AsyncSpannerOperations, DisposableBean {
+  public static final int DEFAULT_POOL_SIZE = 16;
+  public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
+  private final SpannerOperations spannerOperations;
+  private final Executor executor;
+  private final int maxInFlight;
+  private final Semaphore inFlight;
+  private final ExecutorService ownedExecutor;
+
+  public AsyncSpannerTemplate(SpannerOperations spannerOperations) {
+    this(spannerOperations, DEFAULT_POOL_SIZE, DEFAULT_MAX_IN_FLIGHT);
+  }
+
+  public AsyncSpannerTemplate(SpannerOperations spannerOperations, int poolSize, int maxInFlight) {
+    this(spannerOperations, Executors.newFixedThreadPool(poolSize, daemonThreadFactory()), maxInFlight, true);
+  }
+
+  private static ThreadFactory daemonThreadFactory() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spanner-async-");
+    threadFactory.setDaemon(true);
+    return threadFactory;
+  }
+
+  /**
+   * Creates a template that runs on the given executor. The executor is not shut down by {@link #destroy()}.
+   */
+  public AsyncSpannerTemplate(SpannerOperations spannerOperations, Executor executor, int maxInFlight) {
+    this(spannerOperations, executor, maxInFlight, false);
+  }
+
+  private AsyncSpannerTemplate(SpannerOperations spannerOperations, Executor executor, int maxInFlight,
+                               boolean ownsExecutor) {
+    Assert.notNull(spannerOperations, "SpannerOperations must not be null!");
+    Assert.notNull(executor, "Executor must not be null!");
+    Assert.isTrue(maxInFlight > 0, "Max in-flight operations must be greater than 0");
+    this.spannerOperations = spannerOperations;
+    this.executor = executor;
+    this.maxInFlight = maxInFlight;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+  }
+
+  @Override
+  public SpannerOperations getSpannerOperations() {
+    return spannerOperations;
+  }
+
+  /**
+   * Returns the number of operations that can still be submitted without being rejected.
+   */
+  public int getAvailablePermits() {
+    return inFlight.availablePermits();
+  }
+
+  @Override
+  public <T> CompletableFuture<T> find(Class<T> entityClass, Key key) {
+    return submit(() -> spannerOperations.find(entityClass, key));
+  }
+
+  @Override
+  public <T> CompletableFuture<List<T>> find(Class<T> entityClass, KeySet keys, Options.ReadOption... options) {
+    return submit(() -> spannerOperations.find(entityClass, keys, options));
+  }
+
+  @Override
+  public <T> CompletableFuture<List<T>> find(Class<T> entityClass, Statement statement, Options.QueryOption... options) {
+    return submit(() -> spannerOperations.find(entityClass, statement, options));
+  }
+
+  @Override
+  public <T> CompletableFuture<List<T>> findAll(Class<T> entityClass, Options.ReadOption... options) {
+    return submit(() -> spannerOperations.findAll(entityClass, options));
+  }
+
+  @Override
+  public <T> CompletableFuture<Void> delete(Class<T> entityClass, Key key) {
+    return run(() -> spannerOperations.delete(entityClass, key));
+  }
+
+  @Override
+  public <T> CompletableFuture<Void> delete(T object) {
+    return run(() -> spannerOperations.delete(object));
+  }
+
+  @Override
+  public <T> CompletableFuture<Void> insert(T object) {
+    return run(() -> spannerOperations.insert(object));
+  }
+
+  @Override
+  public <T> CompletableFuture<Void> upsert(T object) {
+    return run(() -> spannerOperations.upsert(object));
+  }
+
+  @Override
+  public <T> CompletableFuture<Long> count(Class<T> entityClass) {
+    return submit(() -> spannerOperations.count(entityClass));
+  }
+
+  private CompletableFuture<Void> run(Runnable operation) {
+    return submit(() -> {
+      operation.run();
+      return null;
+    });
+  }
+
+  private <R> CompletableFuture<R> submit(Supplier<R> operation) {
+    checkNoTransaction();
+    if (!inFlight.tryAcquire()) {
+      return failed(new RejectedExecutionException(String.format(
+          "Too many Spanner operations in flight, at most %d are allowed", maxInFlight)));
+    }
+    try {
+      return CompletableFuture.supplyAsync(operation, executor).whenComplete((result, ex) -> inFlight.release());
+    } catch (RejectedExecutionException e) {
+      inFlight.release();
+      return failed(e);
+    }
+  }
+
+  private void checkNoTransaction() {
+    boolean transactionBound = spannerOperations instanceof SpannerTemplate
+        && ((SpannerTemplate) spannerOperations).isTransactionBound();
+    if (transactionBound || TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException("Asynchronous Spanner operations do not take part in the transaction or "
+          + "read-only snapshot of the current thread, use SpannerOperations instead");
+    }
+  }
+
+  private static <R> CompletableFuture<R> failed(Throwable ex) {
+    CompletableFuture<R> future = new CompletableFuture<>();
+    future.completeExceptionally(ex);
+    return future;
+  }
+
+  @Override
+  public void destroy() {
+    if (ownedExecutor != null) {
+      ownedExecutor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.Mutation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.spanner.core.cache.SpannerEntityCache;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.SpannerMutationFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for append heavy workloads. Mutations are queued and committed together by a single write of
+ * the {@link SpannerTemplate}, retried and recorded like its other writes, once
+ * {@link #setMaxBatchSize(int) maxBatchSize} mutations are pending, and otherwise every {@link #setMaxLatencyMillis(long) maxLatencyMillis}, so a mutation waits for at most that long plus
+ * the duration of the preceding flush. At most {@link #setMaxPendingMutations(int) maxPendingMutations} are buffered;
+ * writers that find the buffer full flush it themselves, which blocks them until there is room again.
+ * <p>
+ * Batches are cut by their number of mutations and of cells, see {@link #setMaxCommitCells(int)}, without regard to
+ * entities, so the mutations of an entity and of its interleaved children may be committed in different batches. Use
+ * {@link SpannerTemplate#insertAll(Iterable)} when they must be written atomically. Flushes never join a transaction
+ * of the writing thread.
+ * <p>
+ * Writes are not durable until they are flushed. Pending mutations are flushed when the application context stops,
+ * when the bean is destroyed, or on JVM shutdown if {@link #registerShutdownHook()} was called. Once stopped, the
+ * writer rejects further writes until it is started again. Failed batches are handed to the configured
+ * {@link FailureCallback}.
+ * <p>
+ * Entities written through {@link #insert(Object)},
+ * {@link #upsert(Object)}, {@link #replace(Object)} and {@link #delete(Object)} are evicted from its entity cache
+ * once they are flushed. Mutations passed to {@link #write(Mutation)} directly bypass the cache.
+ */
+public class BufferedSpannerWriter implements SmartLifecycle, DisposableBean {
+  public static final int DEFAULT_MAX_BATCH_SIZE = SpannerTemplate.DEFAULT_WRITE_BATCH_SIZE;
+  public static final long DEFAULT_MAX_LATENCY_MILLIS = 1000;
+  public static final int DEFAULT_MAX_PENDING_MUTATIONS = 10 * DEFAULT_MAX_BATCH_SIZE;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BufferedSpannerWriter.class);
+
+  /**
+   * Callback notified when a batch of buffered mutations could not be committed.
+   */
+  public interface FailureCallback {
+    void onFailure(List<Mutation> batch, RuntimeException ex);
+  }
+
+  private final SpannerTemplate spannerTemplate;
+  private final SpannerMutationFactory mutationFactory;
+  private final SpannerMappingContext mappingContext;
+  private final SpannerEntityCache entityCache;
+  private final ConcurrentLinkedQueue<Runnable> evictions = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  private volatile BlockingQueue<Mutation> queue = new LinkedBlockingQueue<>(DEFAULT_MAX_PENDING_MUTATIONS);
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+  private int maxCommitCells;
+  private long maxLatencyMillis = DEFAULT_MAX_LATENCY_MILLIS;
+  private FailureCallback failureCallback = new FailureCallback() {
+    @Override
+    public void onFailure(List<Mutation> batch, RuntimeException ex) {
+      LOGGER.error(String.format("Failed to write a batch of %d buffered mutations", batch.size()), ex);
+    }
+  };
+
+  private volatile ScheduledExecutorService scheduler;
+  private volatile boolean stopped;
+
+  public BufferedSpannerWriter(SpannerTemplate spannerTemplate) {
+    Assert.notNull(spannerTemplate, "SpannerTemplate must not be null!");
+    this.spannerTemplate = spannerTemplate;
+    this.mutationFactory = spannerTemplate.getMutationFactory();
+    this.mappingContext = spannerTemplate.getMappingContext();
+    this.entityCache = spannerTemplate.getEntityCache();
+    this.maxCommitCells = spannerTemplate.getMaxCommitCells();
+  }
+
+  public void setMaxBatchSize(int maxBatchSize) {
+    Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of cells committed by a single batch, see {@link SpannerTemplate#setMaxCommitCells(int)}.
+   * Defaults to the limit of the template.
+   */
+  public void setMaxCommitCells(int maxCommitCells) {
+    Assert.isTrue(maxCommitCells > 0, "Max commit cells must be greater than 0");
+    this.maxCommitCells = maxCommitCells;
+  }
+
+  public void setMaxLatencyMillis(long maxLatencyMillis) {
+    Assert.isTrue(maxLatencyMillis > 0, "Max latency must be greater than 0");
+    this.maxLatencyMillis = maxLatencyMillis;
+  }
+
+  /**
+   * Sets the maximum number of buffered mutations. Must be set before the first write.
+   */
+  public void setMaxPendingMutations(int maxPendingMutations) {
+    Assert.isTrue(maxPendingMutations > 0, "Max pending mutations must be greater than 0");
+    Assert.state(queue.isEmpty(), "Max pending mutations cannot be changed while mutations are pending");
+    this.queue = new LinkedBlockingQueue<>(maxPendingMutations);
+  }
+
+  public void setFailureCallback(FailureCallback failureCallback) {
+    Assert.notNull(failureCallback, "FailureCallback must not be null!");
+    this.failureCallback = failureCallback;
+  }
+
+  public int getPendingCount() {
+    return queue.size();
+  }
+
+  public void insert(Object object) {
+    writeAll(mutationFactory.createMutations(Mutation.Op.INSERT, object));
+    evictOnFlush(object);
+  }
+
+  public void upsert(Object object) {
+    writeAll(mutationFactory.createMutations(Mutation.Op.INSERT_OR_UPDATE, object));
+    evictOnFlush(object);
+  }
+
+  public void replace(Object object) {
+    writeAll(mutationFactory.createMutations(Mutation.Op.REPLACE, object));
+    evictOnFlush(object);
+  }
+
+  public void delete(Object object) {
+    write(mutationFactory.delete(object));
+    evictOnFlush(object);
+  }
+
+  private void writeAll(List<Mutation> mutations) {
+    for (Mutation mutation : mutations) {
+      write(mutation);
+    }
+  }
+
+  /**
+   * Queues an eviction of the written entity, which runs after the flush that commits its mutations.
+   */
+  private void evictOnFlush(Object object) {
+    if (entityCache == null) {
+      return;
+    }
+    final BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(object.getClass());
+    if (entityCache.isCached(persistentEntity)) {
+      final Key key = persistentEntity.getKey(object);
+      evictions.offer(() -> entityCache.evict(persistentEntity, key));
+    }
+  }
+
+  /**
+   * Queues the mutation, starting the writer on first use.
+   *
+   * @throws IllegalStateException if the writer has been stopped
+   */
+  public void write(Mutation mutation) {
+    ScheduledExecutorService executor = scheduler;
+    if (executor == null) {
+      executor = startIfNotStopped();
+    }
+    BlockingQueue<Mutation> queue = this.queue;
+    while (!queue.offer(mutation)) {
+      // the buffer is full: make room on the caller's thread
+      flush();
+    }
+    if (stopped) {
+      // raced with stop(), which may already have flushed
+      flush();
+      return;
+    }
+    if (queue.size() >= maxBatchSize && flushScheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::flushScheduled);
+      } catch (RejectedExecutionException e) {
+        flushScheduled.set(false);
+        flush();
+      }
+    }
+  }
+
+  private synchronized ScheduledExecutorService startIfNotStopped() {
+    if (stopped) {
+      throw new IllegalStateException("BufferedSpannerWriter has been stopped");
+    }
+    start();
+    return scheduler;
+  }
+
+  private void flushScheduled() {
+    flushScheduled.set(false);
+    flush();
+  }
+
+  /**
+   * Commits all pending mutations, in batches of at most {@code maxBatchSize} mutations and {@code maxCommitCells}
+   * cells, then evicts the written entities from the entity cache.
+   */
+  public void flush() {
+    flushLock.lock();
+    try {
+      // mutations are queued before their evictions, so every eviction taken here belongs to a flushed mutation
+      List<Runnable> flushedEvictions = new ArrayList<>();
+      Runnable eviction;
+      while ((eviction = evictions.poll()) != null) {
+        flushedEvictions.add(eviction);
+      }
+      List<Mutation> batch = drain();
+      while (!batch.isEmpty()) {
+        try {
+          spannerTemplate.writeBatch(batch);
+        } catch (RuntimeException e) {
+          notifyFailure(batch, e);
+        }
+        batch = drain();
+      }
+      for (Runnable flushedEviction : flushedEvictions) {
+        try {
+          flushedEviction.run();
+        } catch (RuntimeException e) {
+          LOGGER.warn("Failed to evict a buffered entity from the entity cache", e);
+        }
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void notifyFailure(List<Mutation> batch, RuntimeException ex) {
+    try {
+      failureCallback.onFailure(batch, ex);
+    } catch (Throwable t) {
+      // a throwing callback must not cancel the periodic flush
+      LOGGER.error("FailureCallback failed for a batch of {} buffered mutations", batch.size(), t);
+    }
+  }
+
+  private List<Mutation> drain() {
+    List<Mutation> batch = new ArrayList<>(Math.min(queue.size(), maxBatchSize));
+    int cells = 0;
+    Mutation mutation;
+    // only the flushing thread takes from the queue, so the head it peeks is the one it polls
+    while (batch.size() < maxBatchSize && (mutation = queue.peek()) != null) {
+      int mutationCells = SpannerTemplate.cellCount(mutation);
+      if (!batch.isEmpty() && cells + mutationCells > maxCommitCells) {
+        break;
+      }
+      batch.add(queue.poll());
+      cells += mutationCells;
+    }
+    return batch;
+  }
+
+  /**
+   * Registers a JVM shutdown hook that flushes pending mutations, for use outside of an application context.
+   */
+  public void registerShutdownHook() {
+    Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "spanner-buffered-writer-shutdown"));
+  }
+
+  @Override
+  public synchronized void start() {
+    stopped = false;
+    if (scheduler != null) {
+      return;
+    }
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spanner-buffered-writer-");
+    threadFactory.setDaemon(true);
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    executor.scheduleWithFixedDelay(this::flushPeriodically, maxLatencyMillis, maxLatencyMillis,
+        TimeUnit.MILLISECONDS);
+    scheduler = executor;
+  }
+
+  private void flushPeriodically() {
+    try {
+      flush();
+    } catch (Throwable t) {
+      // an exception thrown by a scheduled task cancels its further executions
+      LOGGER.error("Failed to flush buffered mutations", t);
+    }
+  }
+
+  @Override
+  public synchronized void stop() {
+    stopped = true;
+    ScheduledExecutorService executor = scheduler;
+    scheduler = null;
+    if (executor != null) {
+      executor.shutdown();
+    }
+    flush();
+  }
+
+  @Override
+  public void stop(Runnable callback) {
+    stop();
+    callback.run();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return scheduler != null;
+  }
+
+  @Override
+  public boolean isAutoStartup() {
+    return true;
+  }
+
+  @Override
+  public int getPhase() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public void destroy() {
+    stop();
+  }
+}
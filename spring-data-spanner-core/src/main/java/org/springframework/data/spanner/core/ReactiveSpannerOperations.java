@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Options;
+import com.google.cloud.spanner.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link SpannerOperations}. Multi-row reads emit each row as it is mapped and only pull rows
+ * from Spanner as fast as the subscriber requests them.
+ */
+public interface ReactiveSpannerOperations {
+  SpannerOperations getSpannerOperations();
+
+  <T> Mono<T> find(Class<T> entityClass, Key key);
+  <T> Flux<T> find(Class<T> entityClass, KeySet keys, Options.ReadOption... options);
+  <T> Flux<T> find(Class<T> entityClass, Statement statement, Options.QueryOption... options);
+
+  <T> Flux<T> findAll(Class<T> entityClass, Options.ReadOption... options);
+
+  <T> Mono<Void> delete(Class<T> entityClass, Key key);
+  <T> Mono<Void> delete(T object);
+  <T> Mono<Void> delete(Class<T> entityClass, Iterable<? extends T> objects);
+  <T> Mono<Void> delete(Class<T> entityClass, KeySet keys);
+
+  <T> Mono<Void> insert(T object);
+  <T> Mono<Void> upsert(T object);
+  <T> Mono<Void> upsertAll(Iterable<? extends T> objects);
+  <T> Mono<Long> count(Class<T> entityClass);
+  <T> Mono<Boolean> exists(Class<T> entityClass, Key key);
+}
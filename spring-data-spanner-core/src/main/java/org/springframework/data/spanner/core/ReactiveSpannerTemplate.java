@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Options;
+import com.google.cloud.spanner.Statement;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+/**
+ * {@link ReactiveSpannerOperations} implementation on top of the blocking {@link SpannerOperations}. Calls are
+ * subscribed on a {@link Scheduler} so that they never block the subscribing thread. Multi-row reads are backed by
+ * {@link SpannerOperations#stream} and map rows on demand; the underlying result set is closed on completion, error or
+ * cancellation.
+ */
+public class ReactiveSpannerTemplate implements ReactiveSpannerOperations {
+  private final SpannerOperations spannerOperations;
+  private final Scheduler scheduler;
+
+  public ReactiveSpannerTemplate(SpannerOperations spannerOperations) {
+    this(spannerOperations, Schedulers.elastic());
+  }
+
+  public ReactiveSpannerTemplate(SpannerOperations spannerOperations, Scheduler scheduler) {
+    Assert.notNull(spannerOperations, "SpannerOperations must not be null!");
+    Assert.notNull(scheduler, "Scheduler must not be null!");
+    this.spannerOperations = spannerOperations;
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public SpannerOperations getSpannerOperations() {
+    return spannerOperations;
+  }
+
+  @Override
+  public <T> Mono<T> find(Class<T> entityClass, Key key) {
+    return mono(() -> spannerOperations.find(entityClass, key));
+  }
+
+  @Override
+  public <T> Flux<T> find(Class<T> entityClass, KeySet keys, Options.ReadOption... options) {
+    return flux(() -> spannerOperations.stream(entityClass, keys, options));
+  }
+
+  @Override
+  public <T> Flux<T> find(Class<T> entityClass, Statement statement, Options.QueryOption... options) {
+    return flux(() -> spannerOperations.stream(entityClass, statement, options));
+  }
+
+  @Override
+  public <T> Flux<T> findAll(Class<T> entityClass, Options.ReadOption... options) {
+    return flux(() -> spannerOperations.streamAll(entityClass, options));
+  }
+
+  @Override
+  public <T> Mono<Void> delete(Class<T> entityClass, Key key) {
+    return run(() -> spannerOperations.delete(entityClass, key));
+  }
+
+  @Override
+  public <T> Mono<Void> delete(T object) {
+    return run(() -> spannerOperations.delete(object));
+  }
+
+  @Override
+  public <T> Mono<Void> delete(Class<T> entityClass, Iterable<? extends T> objects) {
+    return run(() -> spannerOperations.delete(entityClass, objects));
+  }
+
+  @Override
+  public <T> Mono<Void> delete(Class<T> entityClass, KeySet keys) {
+    return run(() -> spannerOperations.delete(entityClass, keys));
+  }
+
+  @Override
+  public <T> Mono<Void> insert(T object) {
+    return run(() -> spannerOperations.insert(object));
+  }
+
+  @Override
+  public <T> Mono<Void> upsert(T object) {
+    return run(() -> spannerOperations.upsert(object));
+  }
+
+  @Override
+  public <T> Mono<Void> upsertAll(Iterable<? extends T> objects) {
+    return run(() -> spannerOperations.upsertAll(objects));
+  }
+
+  @Override
+  public <T> Mono<Long> count(Class<T> entityClass) {
+    return mono(() -> spannerOperations.count(entityClass));
+  }
+
+  @Override
+  public <T> Mono<Boolean> exists(Class<T> entityClass, Key key) {
+    return mono(() -> spannerOperations.exists(entityClass, key));
+  }
+
+  private <R> Mono<R> mono(Callable<R> operation) {
+    return Mono.fromCallable(operation).subscribeOn(scheduler);
+  }
+
+  private Mono<Void> run(Runnable operation) {
+    return Mono.<Void>fromRunnable(operation).subscribeOn(scheduler);
+  }
+
+  private <T> Flux<T> flux(Callable<Stream<T>> query) {
+    return Flux.using(query, stream -> Flux.fromStream(stream), Stream::close).subscribeOn(scheduler);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.CachedCount;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the row counts of {@link CachedCount} entities in memory and refreshes them on a background thread, with at
+ * most one scheduled refresh per table. Once destroyed, counts are no longer cached.
+ */
+class SpannerCountCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpannerCountCache.class);
+
+  private final ConcurrentMap<String, Count> counts = new ConcurrentHashMap<>();
+  private ScheduledExecutorService executor;
+  private volatile boolean destroyed;
+
+  /**
+   * Returns the cached count of the entity's table. The first call counts the rows itself and schedules the refreshes.
+   */
+  public long get(BasicSpannerPersistentEntity<?> persistentEntity, CachedCount cachedCount, LongSupplier counter) {
+    Count count = counts.get(persistentEntity.tableName());
+    if (count != null) {
+      return count.value;
+    }
+    synchronized (this) {
+      if (destroyed) {
+        return counter.getAsLong();
+      }
+      count = counts.get(persistentEntity.tableName());
+      if (count == null) {
+        count = new Count(counter.getAsLong());
+        counts.put(persistentEntity.tableName(), count);
+        schedule(persistentEntity, cachedCount, count, counter);
+      }
+    }
+    return count.value;
+  }
+
+  /**
+   * Returns whether a refresh is scheduled for the table.
+   */
+  boolean isCached(String tableName) {
+    return counts.containsKey(tableName);
+  }
+
+  private void schedule(final BasicSpannerPersistentEntity<?> persistentEntity, CachedCount cachedCount,
+                        final Count count, final LongSupplier counter) {
+    if (executor == null) {
+      CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spanner-count-cache-");
+      threadFactory.setDaemon(true);
+      executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+    executor.scheduleWithFixedDelay(() -> {
+      try {
+        count.value = counter.getAsLong();
+      } catch (RuntimeException e) {
+        // keep serving the previous count until the next refresh succeeds
+        LOGGER.warn("Failed to refresh the row count of table {}", persistentEntity.tableName(), e);
+      }
+    }, cachedCount.refreshInterval(), cachedCount.refreshInterval(), cachedCount.timeUnit());
+  }
+
+  /**
+   * Stops the refreshes, so that no further counts are run once the {@link com.google.cloud.spanner.DatabaseClient}
+   * is closed, and drops the cached counts.
+   */
+  public synchronized void destroy() {
+    destroyed = true;
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    counts.clear();
+  }
+
+  private static class Count {
+    private volatile long value;
+
+    Count(long value) {
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeyRange;
+import com.google.cloud.spanner.KeySet;
+import org.springframework.core.CollectionFactory;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.spanner.core.mapping.*;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Populates the {@link Interleaved} child collections of entities read by a {@link SpannerOperations}. The children of
+ * all parents of a read are fetched with one additional read of their key prefixes and grouped by parent key; lazy
+ * collections, and the collections of streamed entities, read the children of their parent on first access.
+ * Collections already filled by the query itself, e.g. through an {@code ARRAY} subquery, are kept.
+ */
+class SpannerInterleavedLoader {
+
+  /**
+   * Reads the children, so that they are read with the same consistency as their parents.
+   */
+  interface ChildReader {
+    <T> List<T> find(Class<T> entityClass, KeySet keys);
+  }
+
+  private final ChildReader reader;
+  private final SpannerMappingContext mappingContext;
+
+  SpannerInterleavedLoader(ChildReader reader, SpannerMappingContext mappingContext) {
+    this.reader = reader;
+    this.mappingContext = mappingContext;
+  }
+
+  public <T> T load(Class<T> entityClass, T parent) {
+    if (parent != null) {
+      load(entityClass, Collections.singletonList(parent));
+    }
+    return parent;
+  }
+
+  public <T> List<T> load(Class<T> entityClass, List<T> parents) {
+    BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
+    if (parents.isEmpty() || persistentEntity.getInterleavedProperties().isEmpty()) {
+      return parents;
+    }
+    for (SpannerPersistentProperty property : persistentEntity.getInterleavedProperties()) {
+      if (property.findAnnotation(Interleaved.class).lazy()) {
+        for (T parent : parents) {
+          loadLazily(persistentEntity, property, parent);
+        }
+      } else {
+        loadEagerly(persistentEntity, property, parents);
+      }
+    }
+    return parents;
+  }
+
+  public <T> Stream<T> load(Class<T> entityClass, Stream<T> parents) {
+    final BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
+    if (persistentEntity.getInterleavedProperties().isEmpty()) {
+      return parents;
+    }
+    return parents.peek(parent -> {
+      for (SpannerPersistentProperty property : persistentEntity.getInterleavedProperties()) {
+        loadLazily(persistentEntity, property, parent);
+      }
+    });
+  }
+
+  private void loadLazily(BasicSpannerPersistentEntity<?> persistentEntity, SpannerPersistentProperty property,
+                          Object parent) {
+    PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(parent);
+    if (isPopulated(accessor.getProperty(property))) {
+      return;
+    }
+    final Class<?> childClass = property.getActualType();
+    final Key parentKey = persistentEntity.getKey(parent);
+    accessor.setProperty(property, new SpannerLazyList<Object>(
+        () -> new ArrayList<Object>(reader.find(childClass, KeySet.prefixRange(parentKey)))));
+  }
+
+  private void loadEagerly(BasicSpannerPersistentEntity<?> persistentEntity, SpannerPersistentProperty property,
+                           List<?> parents) {
+    Map<Key, Collection<Object>> childrenByParent = new HashMap<>();
+    KeySet.Builder keys = KeySet.newBuilder();
+    for (Object parent : parents) {
+      if (isPopulated(persistentEntity.getPropertyAccessor(parent).getProperty(property))) {
+        continue;
+      }
+      Key parentKey = persistentEntity.getKey(parent);
+      if (!childrenByParent.containsKey(parentKey)) {
+        childrenByParent.put(parentKey, CollectionFactory.createCollection(property.getType(), 16));
+        keys.addRange(KeyRange.prefix(parentKey));
+      }
+    }
+    if (childrenByParent.isEmpty()) {
+      return;
+    }
+
+    Class<?> childClass = property.getActualType();
+    BasicSpannerPersistentEntity<?> childEntity = mappingContext.getPersistentEntity(childClass);
+    int parentKeySize = persistentEntity.primaryKeyColumns().size();
+    for (Object child : reader.find(childClass, keys.build())) {
+      Collection<Object> children = childrenByParent.get(parentKey(childEntity.getKey(child), parentKeySize));
+      if (children != null) {
+        children.add(child);
+      }
+    }
+
+    for (Object parent : parents) {
+      Collection<Object> children = childrenByParent.get(persistentEntity.getKey(parent));
+      if (children != null) {
+        persistentEntity.getPropertyAccessor(parent).setProperty(property, children);
+      }
+    }
+  }
+
+  /**
+   * Collections that are empty may just be initialized by the entity and are loaded again.
+   */
+  private static boolean isPopulated(Object children) {
+    return children instanceof SpannerLazyList || (children instanceof Collection && !((Collection<?>) children).isEmpty());
+  }
+
+  private static Key parentKey(Key childKey, int size) {
+    Key.Builder builder = Key.newBuilder();
+    Iterator<Object> parts = childKey.getParts().iterator();
+    for (int i = 0; i < size && parts.hasNext(); i++) {
+      builder.appendObject(parts.next());
+    }
+    return builder.build();
+  }
+}
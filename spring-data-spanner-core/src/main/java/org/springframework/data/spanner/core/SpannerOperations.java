@@ -20,6 +20,7 @@ import com.google.cloud.spanner.*;
 import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Created by rayt on 3/20/17.
@@ -34,13 +35,69 @@ public interface SpannerOperations {
 
   <T> List<T> findAll(Class<T> entityClass, Options.ReadOption ... options);
 
+  /**
+   * Reads all rows whose primary key starts with the given parts, e.g. all children of an interleaved parent, in one
+   * contiguous range read.
+   */
+  <T> List<T> findByKeyPrefix(Class<T> entityClass, Key prefix, Options.ReadOption... options);
+  <T> Stream<T> streamByKeyPrefix(Class<T> entityClass, Key prefix, Options.ReadOption... options);
+
+  /**
+   * Streaming variants map each row only as it is consumed. The returned {@link Stream} holds an open result set and
+   * must be closed (or fully consumed) by the caller.
+   */
+  <T> Stream<T> stream(Class<T> entityClass, KeySet keys, Options.ReadOption... options);
+  <T> Stream<T> stream(Class<T> entityClass, Statement statement, Options.QueryOption... options);
+  <T> Stream<T> streamAll(Class<T> entityClass, Options.ReadOption... options);
+
+  /**
+   * Projection variants read only the columns needed by the projection type, an interface backed by the entity or a
+   * DTO populated directly from the row. Queries should select the same columns.
+   */
+  <T, P> List<P> find(Class<T> entityClass, Class<P> projectionClass, KeySet keys, Options.ReadOption... options);
+  <T, P> List<P> find(Class<T> entityClass, Class<P> projectionClass, Statement statement, Options.QueryOption... options);
+  <T, P> Stream<P> stream(Class<T> entityClass, Class<P> projectionClass, KeySet keys, Options.ReadOption... options);
+  <T, P> Stream<P> stream(Class<T> entityClass, Class<P> projectionClass, Statement statement, Options.QueryOption... options);
+
+  /**
+   * Variants reading at the given {@link TimestampBound} instead of a strong read. Stale reads, e.g.
+   * {@link TimestampBound#ofMaxStaleness}, can be served by the nearest replica without a round trip to the leader.
+   * They bypass the entity cache.
+   */
+  <T> T find(Class<T> entityClass, Key key, TimestampBound bound);
+  <T> List<T> find(Class<T> entityClass, KeySet keys, TimestampBound bound, Options.ReadOption... options);
+  <T> List<T> find(Class<T> entityClass, Statement statement, TimestampBound bound, Options.QueryOption... options);
+  <T> Stream<T> stream(Class<T> entityClass, KeySet keys, TimestampBound bound, Options.ReadOption... options);
+  <T> Stream<T> stream(Class<T> entityClass, Statement statement, TimestampBound bound, Options.QueryOption... options);
+
   <T> void delete(Class<T> entityClass, Key key);
   <T> void delete(T object);
   <T> void delete(Class<T> entityClass, Iterable<? extends T> objects);
   <T> void delete(Class<T> entityClass, KeySet keys);
 
   <T> void insert(T object);
+  <T> void insertAll(Iterable<? extends T> objects);
   <T> void update(T object, String ... properties);
   <T> void upsert(T object);
+  <T> void upsertAll(Iterable<? extends T> objects);
+  /**
+   * Counts the rows of the entity's table, or returns the count cached in memory for entities annotated with
+   * {@link org.springframework.data.spanner.core.mapping.CachedCount}.
+   */
   <T> long count(Class<T> entityClass);
+
+  /**
+   * Executes a statement selecting a single {@code INT64}, such as {@code SELECT COUNT(*) FROM ...}.
+   */
+  long count(Statement statement);
+
+  /**
+   * Executes a statement selecting a single {@code INT64} with the given {@link TimestampBound}.
+   */
+  long count(Statement statement, TimestampBound bound);
+
+  /**
+   * Returns whether a row with the given key exists, reading only its primary key columns.
+   */
+  <T> boolean exists(Class<T> entityClass, Key key);
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.*;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.SpannerDataException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Coalesces concurrent single-row reads of the same table into one multi-key read. Keys requested within
+ * {@code windowMillis} of the first pending request, or until {@code maxBatchSize} distinct keys are pending, are read
+ * with a single {@link ReadContext#read(String, KeySet, Iterable, Options.ReadOption...)} and each caller receives its
+ * own row. Duplicate keys share one pending read.
+ * <p>
+ * Register it with {@link SpannerTemplate#setReadCoalescer(SpannerReadCoalescer)} to put it in front of
+ * {@link SpannerTemplate#find(Class, Key)}. Batches are read strongly, so the template bypasses the coalescer inside
+ * read-only transactions and for reads with an explicit {@link TimestampBound}.
+ */
+public class SpannerReadCoalescer implements DisposableBean {
+  public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+  public static final long DEFAULT_WINDOW_MILLIS = 5;
+  public static final int DEFAULT_POOL_SIZE = 4;
+
+  private final DatabaseClient databaseClient;
+  private final int maxBatchSize;
+  private final long windowMillis;
+  private final ScheduledExecutorService executor;
+  private final ConcurrentMap<String, Batch> batches = new ConcurrentHashMap<>();
+
+  public SpannerReadCoalescer(DatabaseClient databaseClient) {
+    this(databaseClient, DEFAULT_MAX_BATCH_SIZE, DEFAULT_WINDOW_MILLIS, DEFAULT_POOL_SIZE);
+  }
+
+  public SpannerReadCoalescer(DatabaseClient databaseClient, int maxBatchSize, long windowMillis, int poolSize) {
+    Assert.notNull(databaseClient, "DatabaseClient must not be null!");
+    Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+    Assert.isTrue(windowMillis >= 0, "Window must not be negative");
+    this.databaseClient = databaseClient;
+    this.maxBatchSize = maxBatchSize;
+    this.windowMillis = windowMillis;
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spanner-read-coalescer-");
+    threadFactory.setDaemon(true);
+    this.executor = Executors.newScheduledThreadPool(poolSize, threadFactory);
+  }
+
+  /**
+   * Returns the row with the given key, or {@literal null} if it does not exist, blocking until the batch containing
+   * it has been read.
+   */
+  public Struct readRow(BasicSpannerPersistentEntity<?> persistentEntity, Key key) {
+    try {
+      return readRowAsync(persistentEntity, key).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new SpannerDataException(e.getCause());
+    }
+  }
+
+  public CompletableFuture<Struct> readRowAsync(BasicSpannerPersistentEntity<?> persistentEntity, Key key) {
+    while (true) {
+      Batch batch = batches.computeIfAbsent(persistentEntity.tableName(), table -> newBatch(persistentEntity));
+      CompletableFuture<Struct> future;
+      boolean full;
+      synchronized (batch) {
+        if (batch.closed) {
+          batches.remove(persistentEntity.tableName(), batch);
+          continue;
+        }
+        future = batch.rows.computeIfAbsent(key, k -> new CompletableFuture<>());
+        full = batch.rows.size() >= maxBatchSize;
+        if (full) {
+          batch.closed = true;
+        }
+      }
+      if (full) {
+        batches.remove(persistentEntity.tableName(), batch);
+        batch.timeout.cancel(false);
+        read(batch);
+      }
+      return future;
+    }
+  }
+
+  private Batch newBatch(BasicSpannerPersistentEntity<?> persistentEntity) {
+    Batch batch = new Batch(persistentEntity);
+    batch.timeout = executor.schedule(() -> {
+      synchronized (batch) {
+        if (batch.closed) {
+          return;
+        }
+        batch.closed = true;
+      }
+      batches.remove(persistentEntity.tableName(), batch);
+      read(batch);
+    }, windowMillis, TimeUnit.MILLISECONDS);
+    return batch;
+  }
+
+  private void read(Batch batch) {
+    BasicSpannerPersistentEntity<?> persistentEntity = batch.persistentEntity;
+    try {
+      KeySet.Builder keys = KeySet.newBuilder();
+      for (Key key : batch.rows.keySet()) {
+        keys.addKey(key);
+      }
+      try (ResultSet resultSet = databaseClient.singleUse()
+          .read(persistentEntity.tableName(), keys.build(), persistentEntity.columns())) {
+        while (resultSet.next()) {
+          Struct row = resultSet.getCurrentRowAsStruct();
+          CompletableFuture<Struct> future = batch.rows.get(persistentEntity.getKey(row));
+          if (future != null) {
+            future.complete(row);
+          }
+        }
+      }
+      for (CompletableFuture<Struct> future : batch.rows.values()) {
+        future.complete(null);
+      }
+    } catch (RuntimeException e) {
+      for (CompletableFuture<Struct> future : batch.rows.values()) {
+        future.completeExceptionally(e);
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+
+  private static class Batch {
+    private final BasicSpannerPersistentEntity<?> persistentEntity;
+    private final Map<Key, CompletableFuture<Struct>> rows = new LinkedHashMap<>();
+    private boolean closed;
+    private volatile ScheduledFuture<?> timeout;
+
+    Batch(BasicSpannerPersistentEntity<?> persistentEntity) {
+      this.persistentEntity = persistentEntity;
+    }
+  }
+}
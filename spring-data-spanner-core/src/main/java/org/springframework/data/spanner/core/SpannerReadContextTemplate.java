@@ -17,21 +17,38 @@
 package org.springframework.data.spanner.core;
 
 import com.google.cloud.spanner.*;
-import org.springframework.beans.BeanUtils;
+import com.google.spanner.v1.ResultSetStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.metrics.SpannerMetrics;
+import org.springframework.data.spanner.core.metrics.SpannerOperation;
+import org.springframework.data.spanner.core.metrics.SpannerQueryStatsListener;
+import org.springframework.data.spanner.core.metrics.SpannerStatementStatistics;
 import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
 import org.springframework.data.spanner.core.mapping.SpannerResultSetMapper;
 import org.springframework.data.spanner.core.mapping.SpannerStructObjectMapper;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Created by rayt on 3/20/17.
  */
 public class SpannerReadContextTemplate {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpannerReadContextTemplate.class);
+
   private final SpannerMappingContext mappingContext;
   private final SpannerStructObjectMapper objectMapper;
   private final SpannerResultSetMapper resultSetMapper;
+  private SpannerMetrics metrics = SpannerMetrics.NOOP;
+  private SpannerStatementStatistics statementStatistics;
+  private SpannerQueryStatsListener queryStatsListener;
+  private double profileSampleRate;
 
   public SpannerReadContextTemplate(SpannerMappingContext mappingContext, SpannerStructObjectMapper objectMapper) {
     this.mappingContext = mappingContext;
@@ -39,26 +56,199 @@ public class SpannerReadContextTemplate {
     this.resultSetMapper = new SpannerResultSetMapper(objectMapper);
   }
 
+  public SpannerMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Sets the {@link SpannerMetrics} recording the duration, rows and mapping time of reads returning lists and single
+   * rows. Streams are not measured, since their duration depends on the consumer.
+   */
+  public void setMetrics(SpannerMetrics metrics) {
+    this.metrics = metrics == null ? SpannerMetrics.NOOP : metrics;
+  }
+
+  public SpannerStatementStatistics getStatementStatistics() {
+    return statementStatistics;
+  }
+
+  /**
+   * Sets the registry aggregating the statements executed by the list returning {@code find} methods, or
+   * {@literal null} to disable it.
+   */
+  public void setStatementStatistics(SpannerStatementStatistics statementStatistics) {
+    this.statementStatistics = statementStatistics;
+  }
+
+  public double getProfileSampleRate() {
+    return profileSampleRate;
+  }
+
+  /**
+   * Sets the fraction, between 0 and 1, of the statements executed by the list returning {@code find} methods that
+   * are run in {@link ReadContext.QueryAnalyzeMode#PROFILE} mode. Their statistics are passed to the
+   * {@link #setQueryStatsListener query stats listener}. Profiled statements ignore their query options.
+   */
+  public void setProfileSampleRate(double profileSampleRate) {
+    if (profileSampleRate < 0 || profileSampleRate > 1) {
+      throw new IllegalArgumentException("Profile sample rate must be between 0 and 1");
+    }
+    this.profileSampleRate = profileSampleRate;
+  }
+
+  public SpannerQueryStatsListener getQueryStatsListener() {
+    return queryStatsListener;
+  }
+
+  public void setQueryStatsListener(SpannerQueryStatsListener queryStatsListener) {
+    this.queryStatsListener = queryStatsListener;
+  }
+
   public <T> List<T> findAll(ReadContext readContext, Class<T> entityClass, Options.ReadOption... options) {
     return this.find(readContext, entityClass, KeySet.all(), options);
   }
 
   public <T> List<T> find(ReadContext readContext, Class<T> entityClass, Statement statement, Options.QueryOption... options) {
-    ResultSet resultSet = readContext.executeQuery(statement, options);
-    return this.resultSetMapper.mapToUnmodifiableList(resultSet, entityClass);
+    return query(readContext, entityClass, entityClass, statement, options);
   }
 
   public <T> List<T> find(ReadContext readContext, Class<T> entityClass, KeySet keys, Options.ReadOption... options) {
+    BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
+    return map(SpannerOperation.READ, entityClass, entityClass, null,
+        () -> readContext.read(persistentEntity.tableName(), keys, persistentEntity.columns(), options));
+  }
+
+  public <T> Stream<T> streamAll(ReadContext readContext, Class<T> entityClass, Options.ReadOption... options) {
+    return this.stream(readContext, entityClass, KeySet.all(), options);
+  }
+
+  public <T> Stream<T> stream(ReadContext readContext, Class<T> entityClass, Statement statement, Options.QueryOption... options) {
+    ResultSet resultSet = readContext.executeQuery(statement, options);
+    return this.resultSetMapper.stream(resultSet, entityClass);
+  }
+
+  public <T> Stream<T> stream(ReadContext readContext, Class<T> entityClass, KeySet keys, Options.ReadOption... options) {
     BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
     ResultSet resultSet = readContext.read(persistentEntity.tableName(), keys, persistentEntity.columns(), options);
-    return this.resultSetMapper.mapToUnmodifiableList(resultSet, entityClass);
+    return this.resultSetMapper.stream(resultSet, entityClass);
+  }
+
+  /**
+   * Reads only the columns needed by the projection type and maps them onto it, see
+   * {@link SpannerStructObjectMapper#getProjectionColumns(Class, Class)}.
+   */
+  public <T, P> List<P> find(ReadContext readContext, Class<T> entityClass, Class<P> projectionClass, KeySet keys,
+                             Options.ReadOption... options) {
+    return map(SpannerOperation.READ, entityClass, projectionClass, null,
+        () -> readProjection(readContext, entityClass, projectionClass, keys, options));
+  }
+
+  public <T, P> List<P> find(ReadContext readContext, Class<T> entityClass, Class<P> projectionClass,
+                             Statement statement, Options.QueryOption... options) {
+    return query(readContext, entityClass, projectionClass, statement, options);
+  }
+
+  public <T, P> Stream<P> stream(ReadContext readContext, Class<T> entityClass, Class<P> projectionClass, KeySet keys,
+                                 Options.ReadOption... options) {
+    ResultSet resultSet = readProjection(readContext, entityClass, projectionClass, keys, options);
+    return this.resultSetMapper.stream(resultSet, entityClass, projectionClass);
+  }
+
+  public <T, P> Stream<P> stream(ReadContext readContext, Class<T> entityClass, Class<P> projectionClass,
+                                 Statement statement, Options.QueryOption... options) {
+    ResultSet resultSet = readContext.executeQuery(statement, options);
+    return this.resultSetMapper.stream(resultSet, entityClass, projectionClass);
+  }
+
+  private ResultSet readProjection(ReadContext readContext, Class<?> entityClass, Class<?> projectionClass,
+                                   KeySet keys, Options.ReadOption... options) {
+    BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
+    return readContext.read(persistentEntity.tableName(), keys,
+        objectMapper.getProjectionColumns(entityClass, projectionClass), options);
   }
 
   public <T> T find(ReadContext readContext, Class<T> entityClass, Key key) {
+    if (metrics == SpannerMetrics.NOOP) {
+      Struct row = readRow(readContext, entityClass, key);
+      return row == null ? null : map(row, entityClass);
+    }
+    String tableName = mappingContext.getPersistentEntity(entityClass).tableName();
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      Struct row = readRow(readContext, entityClass, key);
+      metrics.recordRows(SpannerOperation.FIND, tableName, row == null ? 0 : 1);
+      T object = null;
+      if (row != null) {
+        long mappingStart = System.nanoTime();
+        object = map(row, entityClass);
+        metrics.recordMapping(SpannerOperation.FIND, tableName, System.nanoTime() - mappingStart);
+      }
+      success = true;
+      return object;
+    } finally {
+      metrics.recordOperation(SpannerOperation.FIND, tableName, System.nanoTime() - start, success);
+    }
+  }
+
+  public Struct readRow(ReadContext readContext, Class<?> entityClass, Key key) {
     BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
-    T object = BeanUtils.instantiate(entityClass);
-    Struct row = readContext.readRow(persistentEntity.tableName(), key, persistentEntity.columns());
-    objectMapper.map(row, object);
-    return object;
+    return readContext.readRow(persistentEntity.tableName(), key, persistentEntity.columns());
+  }
+
+  public <T> T map(Struct row, Class<T> entityClass) {
+    return objectMapper.getRowMapper(entityClass, row.getType()).map(row);
+  }
+
+  private <P> List<P> query(ReadContext readContext, Class<?> entityClass, Class<P> targetType, Statement statement,
+                            Options.QueryOption... options) {
+    SpannerQueryStatsListener listener = this.queryStatsListener;
+    if (listener == null || profileSampleRate == 0 || ThreadLocalRandom.current().nextDouble() >= profileSampleRate) {
+      return map(SpannerOperation.QUERY, entityClass, targetType, statement,
+          () -> readContext.executeQuery(statement, options));
+    }
+    ResultSet[] profiled = new ResultSet[1];
+    List<P> result = map(SpannerOperation.QUERY, entityClass, targetType, statement,
+        () -> profiled[0] = readContext.analyzeQuery(statement, ReadContext.QueryAnalyzeMode.PROFILE));
+    // the statistics are only available once all rows have been read
+    ResultSetStats stats = profiled[0].getStats();
+    if (stats != null) {
+      try {
+        listener.onQueryStats(statement, entityClass, stats);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Query stats listener failed for statement {}", statement.getSql(), e);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Maps all rows of the result set, recording the read with the {@link SpannerMetrics} and, for statements, the
+   * {@link SpannerStatementStatistics}. The result set is only obtained once timing has started, since reads are sent
+   * to Spanner lazily.
+   */
+  private <P> List<P> map(SpannerOperation operation, Class<?> entityClass, Class<P> targetType, Statement statement,
+                          Supplier<ResultSet> resultSet) {
+    SpannerStatementStatistics statistics = statement != null ? statementStatistics : null;
+    if (metrics == SpannerMetrics.NOOP && statistics == null) {
+      return this.resultSetMapper.mapToUnmodifiableList(resultSet.get(), entityClass, targetType);
+    }
+    String tableName = mappingContext.getPersistentEntity(entityClass).tableName();
+    List<P> result = new ArrayList<>();
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      long mappingNanos = this.resultSetMapper.mapTimed(resultSet.get(), entityClass, targetType, result);
+      metrics.recordRows(operation, tableName, result.size());
+      metrics.recordMapping(operation, tableName, mappingNanos);
+      success = true;
+      return Collections.unmodifiableList(result);
+    } finally {
+      long nanos = System.nanoTime() - start;
+      metrics.recordOperation(operation, tableName, nanos, success);
+      if (statistics != null) {
+        statistics.record(statement.getSql(), nanos, result.size(), success);
+      }
+    }
   }
 }
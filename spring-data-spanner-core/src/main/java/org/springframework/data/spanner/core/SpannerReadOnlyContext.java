@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.*;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads entities within a read-only transaction, see {@link SpannerTemplate#readOnlyTransaction}. All reads, including
+ * those of interleaved children, observe the same snapshot. Lazy children must be accessed before the transaction
+ * ends.
+ */
+public class SpannerReadOnlyContext {
+  private final ReadOnlyTransaction transaction;
+  private final SpannerReadContextTemplate readContextTemplate;
+  private final SpannerInterleavedLoader interleavedLoader;
+
+  public SpannerReadOnlyContext(ReadOnlyTransaction transaction, SpannerReadContextTemplate readContextTemplate,
+                                SpannerMappingContext mappingContext) {
+    this.transaction = transaction;
+    this.readContextTemplate = readContextTemplate;
+    this.interleavedLoader = new SpannerInterleavedLoader(this::find, mappingContext);
+  }
+
+  /**
+   * Returns the timestamp of the snapshot read by this transaction.
+   */
+  public Timestamp getReadTimestamp() {
+    return transaction.getReadTimestamp();
+  }
+
+  public <T> T find(Class<T> entityClass, Key key) {
+    return interleavedLoader.load(entityClass, readContextTemplate.find(transaction, entityClass, key));
+  }
+
+  public <T> List<T> find(Class<T> entityClass, KeySet keys, Options.ReadOption... options) {
+    return interleavedLoader.load(entityClass, readContextTemplate.find(transaction, entityClass, keys, options));
+  }
+
+  public <T> List<T> find(Class<T> entityClass, Statement statement, Options.QueryOption... options) {
+    return interleavedLoader.load(entityClass, readContextTemplate.find(transaction, entityClass, statement, options));
+  }
+
+  public <T> Stream<T> stream(Class<T> entityClass, KeySet keys, Options.ReadOption... options) {
+    return interleavedLoader.load(entityClass, readContextTemplate.stream(transaction, entityClass, keys, options));
+  }
+
+  public <T> Stream<T> stream(Class<T> entityClass, Statement statement, Options.QueryOption... options) {
+    return interleavedLoader.load(entityClass, readContextTemplate.stream(transaction, entityClass, statement, options));
+  }
+
+  public <T, P> List<P> find(Class<T> entityClass, Class<P> projectionClass, KeySet keys,
+                             Options.ReadOption... options) {
+    return readContextTemplate.find(transaction, entityClass, projectionClass, keys, options);
+  }
+
+  public <T, P> List<P> find(Class<T> entityClass, Class<P> projectionClass, Statement statement,
+                             Options.QueryOption... options) {
+    return readContextTemplate.find(transaction, entityClass, projectionClass, statement, options);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether and when {@link SpannerTemplate} retries an aborted write or transaction. Retries back off
+ * exponentially from {@link #setInitialBackoffMillis initialBackoffMillis} up to
+ * {@link #setMaxBackoffMillis maxBackoffMillis}, shortened by a random jitter so that contending clients do not retry
+ * in lockstep, and stop after {@link #setMaxAttempts maxAttempts} or once the next attempt would start after the
+ * {@link #setDeadlineMillis deadline}.
+ * <p>
+ * Only aborts are retried, as other errors would fail again or, for blind writes, might apply twice.
+ */
+public class SpannerRetryPolicy {
+  public static final int DEFAULT_MAX_ATTEMPTS = 10;
+  public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 10;
+  public static final long DEFAULT_MAX_BACKOFF_MILLIS = 1000;
+  public static final double DEFAULT_MULTIPLIER = 2.0;
+  public static final double DEFAULT_JITTER = 0.5;
+  public static final long DEFAULT_DEADLINE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+  private long initialBackoffMillis = DEFAULT_INITIAL_BACKOFF_MILLIS;
+  private long maxBackoffMillis = DEFAULT_MAX_BACKOFF_MILLIS;
+  private double multiplier = DEFAULT_MULTIPLIER;
+  private double jitter = DEFAULT_JITTER;
+  private long deadlineMillis = DEFAULT_DEADLINE_MILLIS;
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  /**
+   * Sets the maximum number of attempts, including the first one. 1 disables retries.
+   */
+  public void setMaxAttempts(int maxAttempts) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("Max attempts must be greater than 0");
+    }
+    this.maxAttempts = maxAttempts;
+  }
+
+  public long getInitialBackoffMillis() {
+    return initialBackoffMillis;
+  }
+
+  public void setInitialBackoffMillis(long initialBackoffMillis) {
+    if (initialBackoffMillis < 0) {
+      throw new IllegalArgumentException("Initial backoff must not be negative");
+    }
+    this.initialBackoffMillis = initialBackoffMillis;
+  }
+
+  public long getMaxBackoffMillis() {
+    return maxBackoffMillis;
+  }
+
+  public void setMaxBackoffMillis(long maxBackoffMillis) {
+    if (maxBackoffMillis < 0) {
+      throw new IllegalArgumentException("Max backoff must not be negative");
+    }
+    this.maxBackoffMillis = maxBackoffMillis;
+  }
+
+  public double getMultiplier() {
+    return multiplier;
+  }
+
+  public void setMultiplier(double multiplier) {
+    if (multiplier < 1) {
+      throw new IllegalArgumentException("Multiplier must be at least 1");
+    }
+    this.multiplier = multiplier;
+  }
+
+  public double getJitter() {
+    return jitter;
+  }
+
+  /**
+   * Sets the fraction, between 0 and 1, by which each backoff is randomly shortened.
+   */
+  public void setJitter(double jitter) {
+    if (jitter < 0 || jitter > 1) {
+      throw new IllegalArgumentException("Jitter must be between 0 and 1");
+    }
+    this.jitter = jitter;
+  }
+
+  public long getDeadlineMillis() {
+    return deadlineMillis;
+  }
+
+  /**
+   * Sets the time after the first attempt past which no further attempt is started.
+   */
+  public void setDeadlineMillis(long deadlineMillis) {
+    if (deadlineMillis < 0) {
+      throw new IllegalArgumentException("Deadline must not be negative");
+    }
+    this.deadlineMillis = deadlineMillis;
+  }
+
+  /**
+   * Returns the time to wait before the given retry, counting from 1.
+   */
+  public long getBackoffMillis(int retry) {
+    double backoff = Math.min(maxBackoffMillis, initialBackoffMillis * Math.pow(multiplier, retry - 1));
+    return (long) (backoff * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+  }
+
+  /**
+   * Returns whether another attempt may start after the given number of attempts and the given backoff.
+   *
+   * @param startNanos the {@link System#nanoTime()} at which the first attempt started.
+   */
+  public boolean canRetry(int attempts, long startNanos, long backoffMillis) {
+    return attempts < maxAttempts
+        && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + backoffMillis < deadlineMillis;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per table counters of the attempts, aborts and time spent in retries of the writes and transactions of a
+ * {@link SpannerTemplate}. A transaction is counted for every table it read from or wrote to.
+ */
+public class SpannerRetryStatistics {
+  private final ConcurrentMap<String, TableStatistics> tables = new ConcurrentHashMap<>();
+
+  /**
+   * Records one write or transaction.
+   *
+   * @param retryNanos the time from the first attempt until the start of the last one.
+   */
+  public void record(Iterable<String> tableNames, int attempts, int aborts, long retryNanos) {
+    for (String tableName : tableNames) {
+      TableStatistics statistics = tables.get(tableName);
+      if (statistics == null) {
+        TableStatistics created = new TableStatistics();
+        statistics = tables.putIfAbsent(tableName, created);
+        if (statistics == null) {
+          statistics = created;
+        }
+      }
+      statistics.operations.increment();
+      statistics.attempts.add(attempts);
+      statistics.aborts.add(aborts);
+      statistics.retryNanos.add(retryNanos);
+    }
+  }
+
+  /**
+   * Returns the statistics by table name.
+   */
+  public Map<String, TableStatistics> getTables() {
+    return Collections.unmodifiableMap(tables);
+  }
+
+  public TableStatistics getTable(String tableName) {
+    return tables.get(tableName);
+  }
+
+  public void reset() {
+    tables.clear();
+  }
+
+  public static class TableStatistics {
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder aborts = new LongAdder();
+    private final LongAdder retryNanos = new LongAdder();
+
+    public long getOperations() {
+      return operations.sum();
+    }
+
+    public long getAttempts() {
+      return attempts.sum();
+    }
+
+    public long getAborts() {
+      return aborts.sum();
+    }
+
+    public long getRetryNanos() {
+      return retryNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("TableStatistics[operations=%d, attempts=%d, aborts=%d, retryNanos=%d]",
+          getOperations(), getAttempts(), getAborts(), getRetryNanos());
+    }
+  }
+}
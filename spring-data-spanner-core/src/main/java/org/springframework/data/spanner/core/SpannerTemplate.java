@@ -17,27 +17,67 @@
 package org.springframework.data.spanner.core;
 
 import com.google.cloud.spanner.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.data.spanner.core.cache.GuavaSpannerEntityCache;
+import org.springframework.data.spanner.core.cache.SpannerEntityCache;
 import org.springframework.data.spanner.core.mapping.*;
+import org.springframework.data.spanner.core.metrics.SpannerMetrics;
+import org.springframework.data.spanner.core.metrics.SpannerOperation;
+import org.springframework.data.spanner.core.metrics.SpannerQueryStatsListener;
+import org.springframework.data.spanner.core.metrics.SpannerStatementStatistics;
+import org.springframework.util.Assert;
 
 import javax.annotation.Nullable;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Created by rayt on 3/20/17.
  */
-public class SpannerTemplate implements SpannerOperations, ApplicationContextAware {
+public class SpannerTemplate implements SpannerOperations, ApplicationContextAware, DisposableBean {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpannerTemplate.class);
+
+  /**
+   * Maximum number of mutations committed by a single write of a bulk operation, unless configured otherwise.
+   */
+  public static final int DEFAULT_WRITE_BATCH_SIZE = 1000;
+
+  /**
+   * Maximum number of cells written by a single commit of a bulk operation, unless configured otherwise. Spanner
+   * limits a commit to 20,000 mutated cells including the entries of secondary indexes, which mutations do not tell,
+   * so half of the limit is left for them.
+   */
+  public static final int DEFAULT_MAX_COMMIT_CELLS = 10000;
+
+  static final long NO_DEADLINE = -1;
+
   private ApplicationContext applicationContext;
+  private int writeBatchSize = DEFAULT_WRITE_BATCH_SIZE;
+  private int maxCommitCells = DEFAULT_MAX_COMMIT_CELLS;
+  private SpannerEntityCache entityCache = new GuavaSpannerEntityCache();
+  private SpannerReadCoalescer readCoalescer;
+  private SpannerRetryPolicy retryPolicy = new SpannerRetryPolicy();
+  private SpannerRetryStatistics retryStatistics = new SpannerRetryStatistics();
+  private SpannerMetrics metrics = SpannerMetrics.NOOP;
+  private final SpannerCountCache countCache = new SpannerCountCache();
+  private final ConcurrentMap<String, Statement> countStatements = new ConcurrentHashMap<>();
+  private final ThreadLocal<ReadOnlyTransaction> currentReadOnlyTransaction = new ThreadLocal<>();
 
   private final DatabaseClient databaseClient;
   private final SpannerMappingContext mappingContext;
   private final SpannerStructObjectMapper objectMapper;
   private final SpannerMutationFactory mutationFactory;
   private final SpannerReadContextTemplate readContextTemplate;
+  private final SpannerInterleavedLoader interleavedLoader;
 
   public SpannerTemplate(DatabaseClient databaseClient, SpannerMappingContext mappingContext) {
     this.databaseClient = databaseClient;
@@ -46,6 +86,7 @@ public class SpannerTemplate implements SpannerOperations, ApplicationContextAwa
     this.objectMapper = new SpannerStructObjectMapper(mappingContext);
     this.mutationFactory = new SpannerMutationFactory(mappingContext);
     this.readContextTemplate = new SpannerReadContextTemplate(mappingContext, this.objectMapper);
+    this.interleavedLoader = new SpannerInterleavedLoader(this::find, mappingContext);
   }
 
   @Override
@@ -57,43 +98,490 @@ public class SpannerTemplate implements SpannerOperations, ApplicationContextAwa
     return this.databaseClient;
   }
 
+  public SpannerMutationFactory getMutationFactory() {
+    return mutationFactory;
+  }
+
+  public int getWriteBatchSize() {
+    return writeBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of mutations committed by a single write when saving multiple entities.
+   */
+  public void setWriteBatchSize(int writeBatchSize) {
+    if (writeBatchSize < 1) {
+      throw new IllegalArgumentException("Write batch size must be greater than 0");
+    }
+    this.writeBatchSize = writeBatchSize;
+  }
+
+  public int getMaxCommitCells() {
+    return maxCommitCells;
+  }
+
+  /**
+   * Sets the maximum number of cells, columns times rows, committed by a single write when saving multiple entities.
+   */
+  public void setMaxCommitCells(int maxCommitCells) {
+    if (maxCommitCells < 1) {
+      throw new IllegalArgumentException("Max commit cells must be greater than 0");
+    }
+    this.maxCommitCells = maxCommitCells;
+  }
+
+  public SpannerEntityCache getEntityCache() {
+    return entityCache;
+  }
+
+  /**
+   * Sets the cache consulted by {@link #find(Class, Key)}, or {@literal null} to disable caching. By default only
+   * entities annotated with {@link EntityCache} are cached.
+   */
+  public void setEntityCache(SpannerEntityCache entityCache) {
+    this.entityCache = entityCache;
+  }
+
+  public SpannerReadCoalescer getReadCoalescer() {
+    return readCoalescer;
+  }
+
+  /**
+   * Sets the {@link SpannerReadCoalescer} used by {@link #find(Class, Key)} to batch concurrent lookups, or
+   * {@literal null} to read every key individually.
+   */
+  public void setReadCoalescer(SpannerReadCoalescer readCoalescer) {
+    this.readCoalescer = readCoalescer;
+  }
+
+  /**
+   * Returns the context of reads without an explicit bound: the snapshot of the current read-only transaction, or
+   * else a strong single-use read.
+   */
+  protected ReadContext readContext() {
+    ReadOnlyTransaction snapshot = currentSnapshot();
+    return snapshot != null ? snapshot : this.databaseClient.singleUse();
+  }
+
+  /**
+   * Returns the read-only transaction started by a {@link SpannerTransactionManager} or by
+   * {@link #readOnlyTransaction(TimestampBound, Consumer)} on the current thread, or {@literal null} if there is none.
+   */
+  private ReadOnlyTransaction currentSnapshot() {
+    SpannerTransactionHolder holder = SpannerTransactionHolder.getCurrent(databaseClient);
+    if (holder != null && holder.isReadOnly()) {
+      holder.checkTimeout();
+      return holder.getReadOnlyTransaction();
+    }
+    return currentReadOnlyTransaction.get();
+  }
+
+  /**
+   * Returns whether a transaction of a {@link SpannerTransactionManager} or a
+   * {@link #readOnlyTransaction(TimestampBound, Consumer)} is bound to the current thread.
+   */
+  boolean isTransactionBound() {
+    return SpannerTransactionHolder.getCurrent(databaseClient) != null || currentReadOnlyTransaction.get() != null;
+  }
+
+  /**
+   * Applies the mutations, or buffers them until commit within a transaction started by a
+   * {@link SpannerTransactionManager}.
+   */
+  protected void write(Iterable<Mutation> mutations) {
+    SpannerTransactionHolder holder = SpannerTransactionHolder.getCurrent(databaseClient);
+    if (holder != null) {
+      holder.buffer(mutations);
+      return;
+    }
+    write(mutations, SpannerOperation.WRITE, NO_DEADLINE);
+  }
+
+  /**
+   * Commits the mutations like other writes of this template, but never into a transaction bound to the current
+   * thread. Used by {@link BufferedSpannerWriter}, whose flushes are independent of the writing threads.
+   */
+  void writeBatch(List<Mutation> mutations) {
+    write(mutations, SpannerOperation.WRITE, NO_DEADLINE);
+  }
+
+  /**
+   * Applies the buffered mutations of a transaction started by a {@link SpannerTransactionManager}.
+   *
+   * @param deadlineNanos the {@link System#nanoTime()} after which aborted commits are not retried, or
+   * {@link #NO_DEADLINE}.
+   */
+  void commit(Iterable<Mutation> mutations, long deadlineNanos) {
+    write(mutations, SpannerOperation.TRANSACTION, deadlineNanos);
+  }
+
+  /**
+   * Commits the mutations in a read-write transaction, so that aborted commits are retried as allowed by the
+   * {@link SpannerRetryPolicy} and the deadline. {@link DatabaseClient#write} would retry them on its own instead.
+   */
+  private void write(final Iterable<Mutation> mutations, SpannerOperation operation, long deadlineNanos) {
+    RetryingCallable<Void> callable = new RetryingCallable<Void>(deadlineNanos) {
+      @Override
+      protected Void attempt(TransactionContext transactionContext) {
+        transactionContext.buffer(mutations);
+        return null;
+      }
+    };
+    boolean success = false;
+    try {
+      this.databaseClient.readWriteTransaction().run(callable);
+      success = true;
+    } catch (SpannerException e) {
+      callable.failed(e);
+      throw e;
+    } finally {
+      long nanos = System.nanoTime() - callable.start;
+      Set<String> tableNames = tableNames(mutations);
+      callable.record(tableNames);
+      for (String tableName : tableNames) {
+        metrics.recordOperation(operation, tableName, nanos, success);
+      }
+      if (success) {
+        metrics.recordMutations(operation, size(mutations));
+      }
+    }
+  }
+
+  private static int size(Iterable<Mutation> mutations) {
+    if (mutations instanceof Collection) {
+      return ((Collection<?>) mutations).size();
+    }
+    int size = 0;
+    for (Mutation ignored : mutations) {
+      size++;
+    }
+    return size;
+  }
+
+  private static Set<String> tableNames(Iterable<Mutation> mutations) {
+    Set<String> tableNames = new LinkedHashSet<>();
+    for (Mutation mutation : mutations) {
+      tableNames.add(mutation.getTable());
+    }
+    return tableNames;
+  }
+
+  private static void backoff(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw SpannerExceptionFactory.propagateInterrupt(e);
+    }
+  }
+
+  public SpannerMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Sets the {@link SpannerMetrics} recording the reads, writes and transactions of this template, or
+   * {@literal null} to record nothing.
+   */
+  public void setMetrics(SpannerMetrics metrics) {
+    this.metrics = metrics == null ? SpannerMetrics.NOOP : metrics;
+    this.readContextTemplate.setMetrics(this.metrics);
+  }
+
+  public SpannerStatementStatistics getStatementStatistics() {
+    return readContextTemplate.getStatementStatistics();
+  }
+
+  /**
+   * Sets the registry aggregating the executed statements and logging slow ones, or {@literal null} to disable it.
+   */
+  public void setStatementStatistics(SpannerStatementStatistics statementStatistics) {
+    readContextTemplate.setStatementStatistics(statementStatistics);
+  }
+
+  public double getProfileSampleRate() {
+    return readContextTemplate.getProfileSampleRate();
+  }
+
+  /**
+   * Sets the fraction of the statements executed by the list returning {@code find} methods that are profiled, see
+   * {@link SpannerReadContextTemplate#setProfileSampleRate(double)}.
+   */
+  public void setProfileSampleRate(double profileSampleRate) {
+    readContextTemplate.setProfileSampleRate(profileSampleRate);
+  }
+
+  public SpannerQueryStatsListener getQueryStatsListener() {
+    return readContextTemplate.getQueryStatsListener();
+  }
+
+  public void setQueryStatsListener(SpannerQueryStatsListener queryStatsListener) {
+    readContextTemplate.setQueryStatsListener(queryStatsListener);
+  }
+
+  public SpannerRetryPolicy getRetryPolicy() {
+    return retryPolicy;
+  }
+
+  /**
+   * Sets the policy for retrying aborted writes and transactions.
+   */
+  public void setRetryPolicy(SpannerRetryPolicy retryPolicy) {
+    Assert.notNull(retryPolicy, "SpannerRetryPolicy must not be null!");
+    this.retryPolicy = retryPolicy;
+  }
+
+  public SpannerRetryStatistics getRetryStatistics() {
+    return retryStatistics;
+  }
+
+  public void setRetryStatistics(SpannerRetryStatistics retryStatistics) {
+    Assert.notNull(retryStatistics, "SpannerRetryStatistics must not be null!");
+    this.retryStatistics = retryStatistics;
+  }
+
   @Override
   public <T> T find(Class<T> entityClass, Key key) {
-    return readContextTemplate.find(this.databaseClient.singleUse(), entityClass, key);
+    BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
+    ReadOnlyTransaction snapshot = currentSnapshot();
+    if (snapshot != null) {
+      // neither cached nor coalesced rows belong to the snapshot of the transaction
+      return interleavedLoader.load(entityClass, readContextTemplate.find(snapshot, entityClass, key));
+    }
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      boolean cached = entityCache != null && entityCache.isCached(persistentEntity);
+      Struct row = cached ? entityCache.get(persistentEntity, key) : null;
+      if (row == null) {
+        row = readRow(persistentEntity, key);
+        if (row == null) {
+          metrics.recordRows(SpannerOperation.FIND, persistentEntity.tableName(), 0);
+          success = true;
+          return null;
+        }
+        if (cached) {
+          entityCache.put(persistentEntity, key, row);
+        }
+      }
+      metrics.recordRows(SpannerOperation.FIND, persistentEntity.tableName(), 1);
+      long mappingStart = System.nanoTime();
+      T object = readContextTemplate.map(row, entityClass);
+      metrics.recordMapping(SpannerOperation.FIND, persistentEntity.tableName(), System.nanoTime() - mappingStart);
+      success = true;
+      return interleavedLoader.load(entityClass, object);
+    } finally {
+      metrics.recordOperation(SpannerOperation.FIND, persistentEntity.tableName(), System.nanoTime() - start, success);
+    }
+  }
+
+  private Struct readRow(BasicSpannerPersistentEntity<?> persistentEntity, Key key) {
+    if (readCoalescer != null) {
+      return readCoalescer.readRow(persistentEntity, key);
+    }
+    return readContextTemplate.readRow(readContext(), persistentEntity.getType(), key);
   }
 
   @Override
   public <T> List<T> find(Class<T> entityClass, KeySet keys, Options.ReadOption... options) {
-    return readContextTemplate.find(this.databaseClient.singleUse(), entityClass, keys, options);
+    return interleavedLoader.load(entityClass,
+        readContextTemplate.find(readContext(), entityClass, keys, options));
   }
 
   @Override
   public <T> List<T> find(Class<T> entityClass, Statement statement, Options.QueryOption... options) {
-    return readContextTemplate.find(this.databaseClient.singleUse(), entityClass, statement, options);
+    return interleavedLoader.load(entityClass,
+        readContextTemplate.find(readContext(), entityClass, statement, options));
   }
 
   @Override
   public <T> List<T> findAll(Class<T> entityClass, Options.ReadOption... options) {
-    BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
-    return readContextTemplate.find(this.databaseClient.singleUse(), entityClass, KeySet.all(), options);
+    return find(entityClass, KeySet.all(), options);
+  }
+
+  @Override
+  public <T> List<T> findByKeyPrefix(Class<T> entityClass, Key prefix, Options.ReadOption... options) {
+    return find(entityClass, KeySet.prefixRange(prefix), options);
+  }
+
+  @Override
+  public <T> Stream<T> streamByKeyPrefix(Class<T> entityClass, Key prefix, Options.ReadOption... options) {
+    return stream(entityClass, KeySet.prefixRange(prefix), options);
+  }
+
+  @Override
+  public <T> Stream<T> stream(Class<T> entityClass, KeySet keys, Options.ReadOption... options) {
+    return interleavedLoader.load(entityClass,
+        readContextTemplate.stream(readContext(), entityClass, keys, options));
+  }
+
+  @Override
+  public <T> Stream<T> stream(Class<T> entityClass, Statement statement, Options.QueryOption... options) {
+    return interleavedLoader.load(entityClass,
+        readContextTemplate.stream(readContext(), entityClass, statement, options));
+  }
+
+  @Override
+  public <T> Stream<T> streamAll(Class<T> entityClass, Options.ReadOption... options) {
+    return stream(entityClass, KeySet.all(), options);
+  }
+
+  @Override
+  public <T, P> List<P> find(Class<T> entityClass, Class<P> projectionClass, KeySet keys, Options.ReadOption... options) {
+    return readContextTemplate.find(readContext(), entityClass, projectionClass, keys, options);
+  }
+
+  @Override
+  public <T, P> List<P> find(Class<T> entityClass, Class<P> projectionClass, Statement statement, Options.QueryOption... options) {
+    return readContextTemplate.find(readContext(), entityClass, projectionClass, statement, options);
+  }
+
+  @Override
+  public <T, P> Stream<P> stream(Class<T> entityClass, Class<P> projectionClass, KeySet keys, Options.ReadOption... options) {
+    return readContextTemplate.stream(readContext(), entityClass, projectionClass, keys, options);
+  }
+
+  @Override
+  public <T, P> Stream<P> stream(Class<T> entityClass, Class<P> projectionClass, Statement statement, Options.QueryOption... options) {
+    return readContextTemplate.stream(readContext(), entityClass, projectionClass, statement, options);
+  }
+
+  @Override
+  public <T> T find(Class<T> entityClass, Key key, TimestampBound bound) {
+    return interleavedLoader(bound).load(entityClass,
+        readContextTemplate.find(this.databaseClient.singleUse(bound), entityClass, key));
+  }
+
+  @Override
+  public <T> List<T> find(Class<T> entityClass, KeySet keys, TimestampBound bound, Options.ReadOption... options) {
+    return interleavedLoader(bound).load(entityClass,
+        readContextTemplate.find(this.databaseClient.singleUse(bound), entityClass, keys, options));
+  }
+
+  @Override
+  public <T> List<T> find(Class<T> entityClass, Statement statement, TimestampBound bound,
+                          Options.QueryOption... options) {
+    return interleavedLoader(bound).load(entityClass,
+        readContextTemplate.find(this.databaseClient.singleUse(bound), entityClass, statement, options));
+  }
+
+  @Override
+  public <T> Stream<T> stream(Class<T> entityClass, KeySet keys, TimestampBound bound, Options.ReadOption... options) {
+    return interleavedLoader(bound).load(entityClass,
+        readContextTemplate.stream(this.databaseClient.singleUse(bound), entityClass, keys, options));
+  }
+
+  @Override
+  public <T> Stream<T> stream(Class<T> entityClass, Statement statement, TimestampBound bound,
+                              Options.QueryOption... options) {
+    return interleavedLoader(bound).load(entityClass,
+        readContextTemplate.stream(this.databaseClient.singleUse(bound), entityClass, statement, options));
+  }
+
+  /**
+   * Returns a loader reading interleaved children with the same bound as their parents.
+   */
+  private SpannerInterleavedLoader interleavedLoader(final TimestampBound bound) {
+    return new SpannerInterleavedLoader(new SpannerInterleavedLoader.ChildReader() {
+      @Override
+      public <T> List<T> find(Class<T> entityClass, KeySet keys) {
+        return SpannerTemplate.this.find(entityClass, keys, bound);
+      }
+    }, mappingContext);
   }
 
   @Override
   public void insert(Object object) {
-    Mutation mutation = mutationFactory.insert(object);
-    this.databaseClient.write(Arrays.asList(mutation));
+    write(mutationFactory.createMutations(Mutation.Op.INSERT, object));
+    evict(object);
+  }
+
+  @Override
+  public <T> void insertAll(Iterable<? extends T> objects) {
+    List<List<Mutation>> mutationGroups = new ArrayList<>();
+    for (T object : objects) {
+      mutationGroups.add(mutationFactory.createMutations(Mutation.Op.INSERT, object));
+    }
+    writeInBatches(mutationGroups);
+    evictAll(objects);
   }
 
   @Override
   public void update(Object object, String ... properties) {
-    Mutation mutation = mutationFactory.update(object);
-    this.databaseClient.write(Arrays.asList(mutation));
+    write(mutationFactory.createMutations(Mutation.Op.UPDATE, object, properties));
+    evict(object);
   }
 
   @Override
   public void upsert(Object object) {
-    Mutation mutation = mutationFactory.upsert(object);
-    this.databaseClient.write(Arrays.asList(mutation));
+    write(mutationFactory.createMutations(Mutation.Op.INSERT_OR_UPDATE, object));
+    evict(object);
+  }
+
+  @Override
+  public <T> void upsertAll(Iterable<? extends T> objects) {
+    List<List<Mutation>> mutationGroups = new ArrayList<>();
+    for (T object : objects) {
+      mutationGroups.add(mutationFactory.createMutations(Mutation.Op.INSERT_OR_UPDATE, object));
+    }
+    writeInBatches(mutationGroups);
+    evictAll(objects);
+  }
+
+  /**
+   * Writes the mutation groups, each holding the mutations of one entity and its interleaved children, in commits of
+   * at most {@link #setWriteBatchSize(int) writeBatchSize} mutations and {@link #setMaxCommitCells(int)
+   * maxCommitCells} cells. A group is never split across commits, so a group exceeding the limits is committed on its
+   * own.
+   */
+  protected void writeInBatches(List<List<Mutation>> mutationGroups) {
+    if (SpannerTransactionHolder.getCurrent(databaseClient) != null) {
+      // a transaction commits all of its mutations at once
+      List<Mutation> mutations = new ArrayList<>();
+      for (List<Mutation> group : mutationGroups) {
+        mutations.addAll(group);
+      }
+      write(mutations);
+      return;
+    }
+    List<Mutation> batch = new ArrayList<>();
+    int batchCells = 0;
+    for (List<Mutation> group : mutationGroups) {
+      int groupCells = cellCount(group);
+      if (!batch.isEmpty()
+          && (batch.size() + group.size() > writeBatchSize || batchCells + groupCells > maxCommitCells)) {
+        write(batch);
+        batch = new ArrayList<>();
+        batchCells = 0;
+      }
+      batch.addAll(group);
+      batchCells += groupCells;
+    }
+    if (!batch.isEmpty()) {
+      write(batch);
+    }
+  }
+
+  /**
+   * Returns the number of cells the mutations write. Deletes are counted as one cell per mutation, since the
+   * number of rows and columns they remove is not known up front.
+   */
+  static int cellCount(Iterable<Mutation> mutations) {
+    int cells = 0;
+    for (Mutation mutation : mutations) {
+      cells += cellCount(mutation);
+    }
+    return cells;
+  }
+
+  static int cellCount(Mutation mutation) {
+    if (mutation.getOperation() == Mutation.Op.DELETE) {
+      return 1;
+    }
+    int cells = 0;
+    for (String ignored : mutation.getColumns()) {
+      cells++;
+    }
+    return cells;
   }
 
   @Override
@@ -101,19 +589,24 @@ public class SpannerTemplate implements SpannerOperations, ApplicationContextAwa
     BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
     String tableName = persistentEntity.tableName();
     Mutation mutation = Mutation.delete(tableName, key);
-    this.databaseClient.write(Arrays.asList(mutation));
+    write(Arrays.asList(mutation));
+    if (entityCache != null && entityCache.isCached(persistentEntity)) {
+      evict(() -> entityCache.evict(persistentEntity, key));
+    }
   }
 
   @Override
   public void delete(Object entity) {
     Mutation mutation = this.mutationFactory.delete(entity);
-    this.databaseClient.write(Arrays.asList(mutation));
+    write(Arrays.asList(mutation));
+    evict(entity);
   }
 
   @Override
   public <T> void delete(Class<T> entityClass, Iterable<? extends T> entities) {
     Mutation mutation = this.mutationFactory.delete(entityClass, entities);
-    this.databaseClient.write(Arrays.asList(mutation));
+    write(Arrays.asList(mutation));
+    evictAll(entities);
   }
 
   @Override
@@ -121,16 +614,106 @@ public class SpannerTemplate implements SpannerOperations, ApplicationContextAwa
     BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
     String tableName = persistentEntity.tableName();
     Mutation delete = Mutation.delete(tableName, keys);
-    this.databaseClient.write(Arrays.asList(delete));
+    write(Arrays.asList(delete));
+    if (entityCache != null && entityCache.isCached(persistentEntity)) {
+      evict(() -> entityCache.evict(persistentEntity, keys));
+    }
+  }
+
+  private void evict(final Object object) {
+    if (entityCache == null) {
+      return;
+    }
+    final BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(object.getClass());
+    if (!entityCache.isCached(persistentEntity)) {
+      return;
+    }
+    evict(() -> {
+      Key key;
+      try {
+        key = persistentEntity.getKey(object);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Cannot determine the key of a {}, evicting all of its cached rows", persistentEntity.getName(), e);
+        entityCache.evictAll(persistentEntity);
+        return;
+      }
+      entityCache.evict(persistentEntity, key);
+    });
+  }
+
+  /**
+   * Runs the eviction now and, within a transaction, again once it completes, since the rows may be cached again
+   * before the buffered mutations are committed. Evictions run after the mutations were written, so failures are
+   * logged rather than thrown.
+   */
+  private void evict(final Runnable eviction) {
+    Runnable safeEviction = () -> {
+      try {
+        eviction.run();
+      } catch (RuntimeException e) {
+        LOGGER.warn("Failed to evict cached rows", e);
+      }
+    };
+    safeEviction.run();
+    SpannerTransactionHolder holder = SpannerTransactionHolder.getCurrent(databaseClient);
+    if (holder != null) {
+      holder.afterCompletion(safeEviction);
+    }
+  }
+
+  private void evictAll(Iterable<?> objects) {
+    if (entityCache != null) {
+      for (Object object : objects) {
+        evict(object);
+      }
+    }
   }
 
   @Override
   public <T> long count(Class<T> entityClass) {
+    final BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
+    CachedCount cachedCount = persistentEntity.findAnnotation(CachedCount.class);
+    if (cachedCount != null) {
+      return countCache.get(persistentEntity, cachedCount, () -> count(countStatement(persistentEntity)));
+    }
+    return count(countStatement(persistentEntity));
+  }
+
+  private Statement countStatement(BasicSpannerPersistentEntity<?> persistentEntity) {
+    Statement statement = countStatements.get(persistentEntity.tableName());
+    if (statement == null) {
+      statement = Statement.of("SELECT COUNT(*) FROM " + persistentEntity.tableName());
+      countStatements.putIfAbsent(persistentEntity.tableName(), statement);
+    }
+    return statement;
+  }
+
+  @Override
+  public long count(Statement statement) {
+    return count(readContext(), statement);
+  }
+
+  @Override
+  public long count(Statement statement, TimestampBound bound) {
+    return count(this.databaseClient.singleUse(bound), statement);
+  }
+
+  private static long count(ReadContext readContext, Statement statement) {
+    try (ResultSet resultSet = readContext.executeQuery(statement)) {
+      return resultSet.next() ? resultSet.getLong(0) : 0;
+    }
+  }
+
+  @Override
+  public <T> boolean exists(Class<T> entityClass, Key key) {
     BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
-    ResultSet resultSet = this.databaseClient.singleUse()
-        .executeQuery(Statement.of(String.format("select count(*) from %s", persistentEntity.tableName())));
-    resultSet.next();
-    return resultSet.getLong(0);
+    ReadContext readContext = readContext();
+    boolean snapshot = readContext instanceof ReadOnlyTransaction;
+    if (!snapshot && entityCache != null && entityCache.isCached(persistentEntity)
+        && entityCache.get(persistentEntity, key) != null) {
+      return true;
+    }
+    return readContext.readRow(persistentEntity.tableName(), key, persistentEntity.primaryKeyColumns()) != null;
   }
 
   @Override
@@ -138,15 +721,119 @@ public class SpannerTemplate implements SpannerOperations, ApplicationContextAwa
     this.applicationContext = applicationContext;
   }
 
+  /**
+   * Stops refreshing the cached counts of {@link CachedCount} entities.
+   */
+  @Override
+  public void destroy() {
+    countCache.destroy();
+  }
+
+  /**
+   * Runs the unit of work in a read-write transaction. Aborted attempts are run again as allowed by the
+   * {@link SpannerRetryPolicy}, after its backoff.
+   */
   public void transaction(final Consumer<SpannerTransactionContext> unitOfWork) {
-    this.databaseClient.readWriteTransaction().run(new TransactionRunner.TransactionCallable<Void>() {
-      @Nullable
+    final List<SpannerTransactionContext> attempts = new ArrayList<>();
+    RetryingCallable<Void> callable = new RetryingCallable<Void>(NO_DEADLINE) {
       @Override
-      public Void run(TransactionContext transactionContext) throws Exception {
-        SpannerTransactionContext ctx = new SpannerTransactionContext(transactionContext, readContextTemplate, mappingContext, mutationFactory);
+      protected Void attempt(TransactionContext transactionContext) {
+        SpannerTransactionContext ctx = new SpannerTransactionContext(transactionContext, readContextTemplate, mappingContext, mutationFactory, entityCache);
+        attempts.add(ctx);
         unitOfWork.accept(ctx);
         return null;
       }
-    });
+    };
+    boolean success = false;
+    try {
+      this.databaseClient.readWriteTransaction().run(callable);
+      success = true;
+    } catch (SpannerException e) {
+      callable.failed(e);
+      throw e;
+    } finally {
+      Set<String> tableNames = new LinkedHashSet<>();
+      // rows may have been re-cached while the transaction was in flight
+      for (SpannerTransactionContext ctx : attempts) {
+        ctx.evictCachedEntries();
+        tableNames.addAll(ctx.getTableNames());
+      }
+      callable.record(tableNames);
+      long nanos = System.nanoTime() - callable.start;
+      for (String tableName : tableNames) {
+        metrics.recordOperation(SpannerOperation.TRANSACTION, tableName, nanos, success);
+      }
+      if (success && !attempts.isEmpty()) {
+        metrics.recordMutations(SpannerOperation.TRANSACTION, attempts.get(attempts.size() - 1).getMutationCount());
+      }
+    }
+  }
+
+  /**
+   * {@link TransactionRunner.TransactionCallable} counting its attempts. The runner only calls back again after the
+   * previous attempt was aborted, so every further call is a retry, which backs off or gives up as the
+   * {@link SpannerRetryPolicy} and the deadline allow.
+   */
+  private abstract class RetryingCallable<T> implements TransactionRunner.TransactionCallable<T> {
+    final long start = System.nanoTime();
+    private final long deadlineNanos;
+    private long attemptStart = start;
+    private int attempts;
+    private boolean gaveUp;
+    private boolean aborted;
+
+    RetryingCallable(long deadlineNanos) {
+      this.deadlineNanos = deadlineNanos;
+    }
+
+    @Nullable
+    @Override
+    public final T run(TransactionContext transactionContext) throws Exception {
+      if (attempts > 0) {
+        long backoff = retryPolicy.getBackoffMillis(attempts);
+        if (!retryPolicy.canRetry(attempts, start, backoff) || (deadlineNanos != NO_DEADLINE
+            && System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff) > deadlineNanos)) {
+          gaveUp = true;
+          throw SpannerExceptionFactory.newSpannerException(ErrorCode.DEADLINE_EXCEEDED, String.format(
+              "Transaction aborted %d times, giving up after %d ms", attempts,
+              TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        }
+        backoff(backoff);
+      }
+      attemptStart = System.nanoTime();
+      attempts++;
+      return attempt(transactionContext);
+    }
+
+    protected abstract T attempt(TransactionContext transactionContext);
+
+    void failed(SpannerException e) {
+      aborted = gaveUp || e.getErrorCode() == ErrorCode.ABORTED;
+    }
+
+    void record(Set<String> tableNames) {
+      int aborts = Math.max(attempts - 1, 0) + (aborted ? 1 : 0);
+      retryStatistics.record(tableNames, attempts, aborts, attemptStart - start);
+    }
+  }
+
+  /**
+   * Runs the given reads in a read-only transaction, so that they all observe the same snapshot at the given bound.
+   * Spanner only allows strong, exact staleness and read timestamp bounds for multi-use transactions. Reads of this
+   * template without an explicit bound on the same thread use the snapshot as well, bypassing the entity cache and
+   * the read coalescer.
+   */
+  public void readOnlyTransaction(TimestampBound bound, Consumer<SpannerReadOnlyContext> unitOfWork) {
+    ReadOnlyTransaction previous = currentReadOnlyTransaction.get();
+    try (ReadOnlyTransaction transaction = this.databaseClient.readOnlyTransaction(bound)) {
+      currentReadOnlyTransaction.set(transaction);
+      unitOfWork.accept(new SpannerReadOnlyContext(transaction, readContextTemplate, mappingContext));
+    } finally {
+      if (previous != null) {
+        currentReadOnlyTransaction.set(previous);
+      } else {
+        currentReadOnlyTransaction.remove();
+      }
+    }
   }
 }
@@ -17,11 +17,17 @@
 package org.springframework.data.spanner.core;
 
 import com.google.cloud.spanner.*;
+import org.springframework.data.spanner.core.cache.SpannerEntityCache;
 import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
 import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
 import org.springframework.data.spanner.core.mapping.SpannerMutationFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Created by rayt on 3/20/17.
@@ -31,43 +37,105 @@ public class SpannerTransactionContext {
   private final SpannerReadContextTemplate readContextTemplate;
   private final SpannerMappingContext mappingContext;
   private final SpannerMutationFactory mutationFactory;
+  private final SpannerEntityCache entityCache;
+  private final List<Runnable> evictions = new ArrayList<>();
+  private final Set<String> tableNames = new LinkedHashSet<>();
+  private int mutationCount;
 
   public SpannerTransactionContext(TransactionContext transactionContext, SpannerReadContextTemplate readContextTemplate, SpannerMappingContext mappingContext, SpannerMutationFactory mutationFactory) {
+    this(transactionContext, readContextTemplate, mappingContext, mutationFactory, null);
+  }
+
+  public SpannerTransactionContext(TransactionContext transactionContext, SpannerReadContextTemplate readContextTemplate, SpannerMappingContext mappingContext, SpannerMutationFactory mutationFactory, SpannerEntityCache entityCache) {
     this.transactionContext = transactionContext;
     this.readContextTemplate = readContextTemplate;
     this.mappingContext = mappingContext;
     this.mutationFactory = mutationFactory;
+    this.entityCache = entityCache;
   }
 
   public <T> List<T> find(Class<T> entityClass, Statement statement, Options.QueryOption ... options) {
+    tableNames.add(mappingContext.getPersistentEntity(entityClass).tableName());
     return this.readContextTemplate.find(this.transactionContext, entityClass, statement, options);
   }
 
+  public <T> Stream<T> stream(Class<T> entityClass, Statement statement, Options.QueryOption ... options) {
+    tableNames.add(mappingContext.getPersistentEntity(entityClass).tableName());
+    return this.readContextTemplate.stream(this.transactionContext, entityClass, statement, options);
+  }
+
   public void insert(Object object) {
-    Mutation mutation = mutationFactory.insert(object);
-    this.transactionContext.buffer(mutation);
+    buffer(mutationFactory.createMutations(Mutation.Op.INSERT, object));
+    evict(object);
   }
 
   public void update(Object object, String ... properties) {
-    Mutation mutation = mutationFactory.update(object, properties);
-    this.transactionContext.buffer(mutation);
+    buffer(mutationFactory.createMutations(Mutation.Op.UPDATE, object, properties));
+    evict(object);
   }
 
   public void upsert(Object object) {
-    Mutation mutation = mutationFactory.upsert(object);
-    this.transactionContext.buffer(mutation);
+    buffer(mutationFactory.createMutations(Mutation.Op.INSERT_OR_UPDATE, object));
+    evict(object);
   }
 
   public void delete(Class<?> entityClass, Key key) {
     BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
     String tableName = persistentEntity.tableName();
     Mutation mutation = Mutation.delete(tableName, key);
-    this.transactionContext.buffer(mutation);
+    buffer(Collections.singletonList(mutation));
+    evict(persistentEntity, key);
   }
 
   public void delete(Object object) {
     Mutation mutation = this.mutationFactory.delete(object);
-    this.transactionContext.buffer(mutation);
+    buffer(Collections.singletonList(mutation));
+    evict(object);
+  }
+
+  private void buffer(List<Mutation> mutations) {
+    for (Mutation mutation : mutations) {
+      tableNames.add(mutation.getTable());
+    }
+    mutationCount += mutations.size();
+    this.transactionContext.buffer(mutations);
+  }
+
+  /**
+   * Returns the tables this attempt of the transaction has read from or written to.
+   */
+  Set<String> getTableNames() {
+    return tableNames;
+  }
+
+  int getMutationCount() {
+    return mutationCount;
+  }
+
+  private void evict(Object object) {
+    if (entityCache != null) {
+      BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(object.getClass());
+      if (entityCache.isCached(persistentEntity)) {
+        evict(persistentEntity, persistentEntity.getKey(object));
+      }
+    }
+  }
+
+  private void evict(final BasicSpannerPersistentEntity<?> persistentEntity, final Key key) {
+    if (entityCache != null && entityCache.isCached(persistentEntity)) {
+      Runnable eviction = () -> entityCache.evict(persistentEntity, key);
+      eviction.run();
+      evictions.add(eviction);
+    }
+  }
+
+  /**
+   * Evicts the cached rows written by this transaction again, once it has committed or failed.
+   */
+  void evictCachedEntries() {
+    for (Runnable eviction : evictions) {
+      eviction.run();
+    }
   }
 
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.ReadOnlyTransaction;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Transaction state bound to the current thread by {@link SpannerTransactionManager}, keyed by its
+ * {@link DatabaseClient}. Read-write transactions buffer the mutations of all writes until commit; read-only
+ * transactions read from one {@link ReadOnlyTransaction}.
+ */
+public class SpannerTransactionHolder extends ResourceHolderSupport {
+  private final ReadOnlyTransaction readOnlyTransaction;
+  private final List<Mutation> mutations = new ArrayList<>();
+  private final List<Runnable> completionCallbacks = new ArrayList<>();
+
+  SpannerTransactionHolder(ReadOnlyTransaction readOnlyTransaction) {
+    this.readOnlyTransaction = readOnlyTransaction;
+  }
+
+  /**
+   * Returns the holder bound to the current thread for the given client, or {@literal null} outside of a managed
+   * transaction.
+   */
+  public static SpannerTransactionHolder getCurrent(DatabaseClient databaseClient) {
+    SpannerTransactionHolder holder =
+        (SpannerTransactionHolder) TransactionSynchronizationManager.getResource(databaseClient);
+    return holder != null && holder.isSynchronizedWithTransaction() ? holder : null;
+  }
+
+  public boolean isReadOnly() {
+    return readOnlyTransaction != null;
+  }
+
+  /**
+   * Returns the transaction all reads of a read-only transaction use, or {@literal null} for read-write transactions.
+   */
+  public ReadOnlyTransaction getReadOnlyTransaction() {
+    return readOnlyTransaction;
+  }
+
+  /**
+   * Buffers mutations to be applied atomically when the transaction commits.
+   */
+  public void buffer(Iterable<Mutation> mutations) {
+    if (isReadOnly()) {
+      throw new IllegalStateException("Cannot write in a read-only transaction");
+    }
+    checkTimeout();
+    for (Mutation mutation : mutations) {
+      this.mutations.add(mutation);
+    }
+  }
+
+  /**
+   * Throws a {@link org.springframework.transaction.TransactionTimedOutException} and marks the transaction rollback
+   * only once its timeout has passed.
+   */
+  void checkTimeout() {
+    if (hasTimeout()) {
+      getTimeToLiveInMillis();
+    }
+  }
+
+  public List<Mutation> getMutations() {
+    return Collections.unmodifiableList(mutations);
+  }
+
+  /**
+   * Registers a callback run once the transaction has completed, whether it committed or rolled back.
+   */
+  public void afterCompletion(Runnable callback) {
+    completionCallbacks.add(callback);
+  }
+
+  void completed() {
+    if (readOnlyTransaction != null) {
+      readOnlyTransaction.close();
+    }
+    mutations.clear();
+    for (Runnable callback : completionCallbacks) {
+      callback.run();
+    }
+    completionCallbacks.clear();
+  }
+}
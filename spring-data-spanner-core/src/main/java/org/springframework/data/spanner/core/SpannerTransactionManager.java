@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.SpannerException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link org.springframework.transaction.PlatformTransactionManager} for the {@link DatabaseClient} of a
+ * {@link SpannerTemplate}, so that {@code @Transactional} methods group the writes of the template and the
+ * repositories into one commit.
+ * <p>
+ * The client only runs read-write transactions through a callback, so a read-write transaction buffers the mutations
+ * of all writes in a {@link SpannerTransactionHolder} and applies them atomically at commit. Reads inside it are not
+ * part of the transaction and take no locks. Read-only transactions run all reads against one
+ * {@link com.google.cloud.spanner.ReadOnlyTransaction} snapshot.
+ * <p>
+ * The mutations are committed through the {@link SpannerTemplate}, so aborted commits are retried according to its
+ * {@link SpannerRetryPolicy} and recorded by its {@link org.springframework.data.spanner.core.metrics.SpannerMetrics}.
+ * A transaction timeout fails reads and writes started after it expired, and bounds the retries of the commit.
+ * <p>
+ * Like every {@link AbstractPlatformTransactionManager} it is serializable, but the template and client are not
+ * serialized with it, so a deserialized manager cannot begin transactions.
+ */
+public class SpannerTransactionManager extends AbstractPlatformTransactionManager {
+  private static final long serialVersionUID = 1L;
+
+  private final transient SpannerTemplate spannerTemplate;
+  private final transient DatabaseClient databaseClient;
+
+  public SpannerTransactionManager(SpannerTemplate spannerTemplate) {
+    Assert.notNull(spannerTemplate, "SpannerTemplate must not be null!");
+    this.spannerTemplate = spannerTemplate;
+    this.databaseClient = spannerTemplate.getDatabaseClient();
+  }
+
+  public SpannerTemplate getSpannerTemplate() {
+    return spannerTemplate;
+  }
+
+  public DatabaseClient getDatabaseClient() {
+    return databaseClient;
+  }
+
+  @Override
+  protected Object doGetTransaction() throws TransactionException {
+    return new SpannerTransactionObject(
+        (SpannerTransactionHolder) TransactionSynchronizationManager.getResource(databaseClient));
+  }
+
+  @Override
+  protected boolean isExistingTransaction(Object transaction) throws TransactionException {
+    return ((SpannerTransactionObject) transaction).holder != null;
+  }
+
+  @Override
+  protected void doBegin(Object transaction, TransactionDefinition definition) throws TransactionException {
+    SpannerTransactionHolder holder;
+    try {
+      holder = new SpannerTransactionHolder(definition.isReadOnly() ? databaseClient.readOnlyTransaction() : null);
+    } catch (SpannerException e) {
+      throw new CannotCreateTransactionException("Could not begin a Spanner read-only transaction", e);
+    }
+    holder.setSynchronizedWithTransaction(true);
+    int timeout = determineTimeout(definition);
+    if (timeout != TransactionDefinition.TIMEOUT_DEFAULT) {
+      holder.setTimeoutInSeconds(timeout);
+    }
+    ((SpannerTransactionObject) transaction).holder = holder;
+    TransactionSynchronizationManager.bindResource(databaseClient, holder);
+  }
+
+  @Override
+  protected Object doSuspend(Object transaction) throws TransactionException {
+    ((SpannerTransactionObject) transaction).holder = null;
+    return TransactionSynchronizationManager.unbindResource(databaseClient);
+  }
+
+  @Override
+  protected void doResume(Object transaction, Object suspendedResources) throws TransactionException {
+    TransactionSynchronizationManager.bindResource(databaseClient, suspendedResources);
+  }
+
+  @Override
+  protected void doCommit(DefaultTransactionStatus status) throws TransactionException {
+    SpannerTransactionHolder holder = ((SpannerTransactionObject) status.getTransaction()).holder;
+    if (holder.getMutations().isEmpty()) {
+      return;
+    }
+    long deadlineNanos = SpannerTemplate.NO_DEADLINE;
+    if (holder.hasTimeout()) {
+      deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(holder.getTimeToLiveInMillis());
+    }
+    try {
+      spannerTemplate.commit(holder.getMutations(), deadlineNanos);
+    } catch (SpannerException e) {
+      throw new TransactionSystemException("Could not commit Spanner transaction", e);
+    }
+  }
+
+  @Override
+  protected void doRollback(DefaultTransactionStatus status) throws TransactionException {
+    // nothing has been sent to Spanner yet, the buffered mutations are discarded on completion
+  }
+
+  @Override
+  protected void doSetRollbackOnly(DefaultTransactionStatus status) throws TransactionException {
+    ((SpannerTransactionObject) status.getTransaction()).holder.setRollbackOnly();
+  }
+
+  @Override
+  protected void doCleanupAfterCompletion(Object transaction) {
+    SpannerTransactionHolder holder = ((SpannerTransactionObject) transaction).holder;
+    TransactionSynchronizationManager.unbindResource(databaseClient);
+    holder.completed();
+  }
+
+  private static class SpannerTransactionObject implements SmartTransactionObject {
+    private SpannerTransactionHolder holder;
+
+    SpannerTransactionObject(SpannerTransactionHolder holder) {
+      this.holder = holder;
+    }
+
+    @Override
+    public boolean isRollbackOnly() {
+      return holder != null && holder.isRollbackOnly();
+    }
+
+    @Override
+    public void flush() {
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.cache;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.Struct;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.EntityCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link SpannerEntityCache} backed by one size bounded, LRU evicting Guava {@link Cache} per table. Only entities
+ * annotated with {@link EntityCache} are cached, using the size and expiry declared on the annotation.
+ */
+public class GuavaSpannerEntityCache implements SpannerEntityCache {
+  private final ConcurrentMap<String, Cache<Key, Struct>> caches = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean isCached(BasicSpannerPersistentEntity<?> persistentEntity) {
+    return persistentEntity.getEntityCache() != null;
+  }
+
+  @Override
+  public Struct get(BasicSpannerPersistentEntity<?> persistentEntity, Key key) {
+    Cache<Key, Struct> cache = getCache(persistentEntity);
+    return cache == null ? null : cache.getIfPresent(key);
+  }
+
+  @Override
+  public void put(BasicSpannerPersistentEntity<?> persistentEntity, Key key, Struct row) {
+    Cache<Key, Struct> cache = getCache(persistentEntity);
+    if (cache != null) {
+      cache.put(key, row);
+    }
+  }
+
+  @Override
+  public void evict(BasicSpannerPersistentEntity<?> persistentEntity, Key key) {
+    Cache<Key, Struct> cache = caches.get(persistentEntity.tableName());
+    if (cache != null) {
+      cache.invalidate(key);
+    }
+  }
+
+  @Override
+  public void evictAll(BasicSpannerPersistentEntity<?> persistentEntity) {
+    Cache<Key, Struct> cache = caches.get(persistentEntity.tableName());
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  @Override
+  public Map<String, SpannerEntityCacheStatistics> getStatistics() {
+    Map<String, SpannerEntityCacheStatistics> statistics = new LinkedHashMap<>();
+    for (Map.Entry<String, Cache<Key, Struct>> entry : caches.entrySet()) {
+      Cache<Key, Struct> cache = entry.getValue();
+      CacheStats stats = cache.stats();
+      statistics.put(entry.getKey(), new SpannerEntityCacheStatistics(cache.size(), stats.hitCount(),
+          stats.missCount(), stats.evictionCount()));
+    }
+    return statistics;
+  }
+
+  private Cache<Key, Struct> getCache(BasicSpannerPersistentEntity<?> persistentEntity) {
+    EntityCache settings = persistentEntity.getEntityCache();
+    if (settings == null) {
+      return null;
+    }
+    Cache<Key, Struct> cache = caches.get(persistentEntity.tableName());
+    if (cache == null) {
+      cache = CacheBuilder.newBuilder()
+          .maximumSize(settings.maximumSize())
+          .expireAfterWrite(settings.expireAfterWrite(), settings.timeUnit())
+          .recordStats()
+          .build();
+      Cache<Key, Struct> existing = caches.putIfAbsent(persistentEntity.tableName(), cache);
+      if (existing != null) {
+        cache = existing;
+      }
+    }
+    return cache;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.cache;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Struct;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+
+import java.util.Map;
+
+/**
+ * Read-through cache of rows keyed by table and primary {@link Key}. Rows are cached as immutable {@link Struct}s and
+ * mapped on every hit, so callers never share entity instances. Implementations decide which entities are cached,
+ * typically from their {@link org.springframework.data.spanner.core.mapping.EntityCache} annotation.
+ */
+public interface SpannerEntityCache {
+  boolean isCached(BasicSpannerPersistentEntity<?> persistentEntity);
+
+  /**
+   * Returns the cached row, or {@literal null} on a miss.
+   */
+  Struct get(BasicSpannerPersistentEntity<?> persistentEntity, Key key);
+
+  void put(BasicSpannerPersistentEntity<?> persistentEntity, Key key, Struct row);
+
+  void evict(BasicSpannerPersistentEntity<?> persistentEntity, Key key);
+
+  void evictAll(BasicSpannerPersistentEntity<?> persistentEntity);
+
+  /**
+   * Evicts every cached row covered by the given {@link KeySet}. Key ranges evict the whole table.
+   */
+  default void evict(BasicSpannerPersistentEntity<?> persistentEntity, KeySet keys) {
+    if (keys.isAll() || keys.getRanges().iterator().hasNext()) {
+      evictAll(persistentEntity);
+      return;
+    }
+    for (Key key : keys.getKeys()) {
+      evict(persistentEntity, key);
+    }
+  }
+
+  /**
+   * Returns hit/miss statistics keyed by table name.
+   */
+  Map<String, SpannerEntityCacheStatistics> getStatistics();
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.cache;
+
+/**
+ * Point in time statistics of a cached table.
+ */
+public class SpannerEntityCacheStatistics {
+  private final long size;
+  private final long hitCount;
+  private final long missCount;
+  private final long evictionCount;
+
+  public SpannerEntityCacheStatistics(long size, long hitCount, long missCount, long evictionCount) {
+    this.size = size;
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  public double getHitRate() {
+    long requests = hitCount + missCount;
+    return requests == 0 ? 1.0 : (double) hitCount / requests;
+  }
+
+  @Override
+  public String toString() {
+    return "SpannerEntityCacheStatistics{size=" + size + ", hitCount=" + hitCount + ", missCount=" + missCount
+        + ", evictionCount=" + evictionCount + "}";
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.convert;
+
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import org.springframework.core.convert.converter.Converter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Default converters between common Java types and the types Spanner columns map onto.
+ */
+abstract class SpannerConverters {
+
+  private SpannerConverters() {
+  }
+
+  static List<Object> getConvertersToRegister() {
+    List<Object> converters = new ArrayList<>();
+    converters.add(InstantToTimestampConverter.INSTANCE);
+    converters.add(TimestampToInstantConverter.INSTANCE);
+    converters.add(JavaDateToTimestampConverter.INSTANCE);
+    converters.add(TimestampToJavaDateConverter.INSTANCE);
+    converters.add(LocalDateToDateConverter.INSTANCE);
+    converters.add(DateToLocalDateConverter.INSTANCE);
+    converters.add(BigDecimalToStringConverter.INSTANCE);
+    converters.add(StringToBigDecimalConverter.INSTANCE);
+    converters.add(UuidToStringConverter.INSTANCE);
+    converters.add(StringToUuidConverter.INSTANCE);
+    return converters;
+  }
+
+  enum InstantToTimestampConverter implements Converter<Instant, Timestamp> {
+    INSTANCE;
+
+    @Override
+    public Timestamp convert(Instant source) {
+      return Timestamp.ofTimeSecondsAndNanos(source.getEpochSecond(), source.getNano());
+    }
+  }
+
+  enum TimestampToInstantConverter implements Converter<Timestamp, Instant> {
+    INSTANCE;
+
+    @Override
+    public Instant convert(Timestamp source) {
+      return Instant.ofEpochSecond(source.getSeconds(), source.getNanos());
+    }
+  }
+
+  enum JavaDateToTimestampConverter implements Converter<java.util.Date, Timestamp> {
+    INSTANCE;
+
+    @Override
+    public Timestamp convert(java.util.Date source) {
+      return Timestamp.of(source);
+    }
+  }
+
+  enum TimestampToJavaDateConverter implements Converter<Timestamp, java.util.Date> {
+    INSTANCE;
+
+    @Override
+    public java.util.Date convert(Timestamp source) {
+      return new java.util.Date(source.getSeconds() * 1000 + source.getNanos() / 1000000);
+    }
+  }
+
+  enum LocalDateToDateConverter implements Converter<LocalDate, Date> {
+    INSTANCE;
+
+    @Override
+    public Date convert(LocalDate source) {
+      return Date.fromYearMonthDay(source.getYear(), source.getMonthValue(), source.getDayOfMonth());
+    }
+  }
+
+  enum DateToLocalDateConverter implements Converter<Date, LocalDate> {
+    INSTANCE;
+
+    @Override
+    public LocalDate convert(Date source) {
+      return LocalDate.of(source.getYear(), source.getMonth(), source.getDayOfMonth());
+    }
+  }
+
+  enum BigDecimalToStringConverter implements Converter<BigDecimal, String> {
+    INSTANCE;
+
+    @Override
+    public String convert(BigDecimal source) {
+      return source.toString();
+    }
+  }
+
+  enum StringToBigDecimalConverter implements Converter<String, BigDecimal> {
+    INSTANCE;
+
+    @Override
+    public BigDecimal convert(String source) {
+      return new BigDecimal(source);
+    }
+  }
+
+  enum UuidToStringConverter implements Converter<UUID, String> {
+    INSTANCE;
+
+    @Override
+    public String convert(UUID source) {
+      return source.toString();
+    }
+  }
+
+  enum StringToUuidConverter implements Converter<String, UUID> {
+    INSTANCE;
+
+    @Override
+    public UUID convert(String source) {
+      return UUID.fromString(source);
+    }
+  }
+}
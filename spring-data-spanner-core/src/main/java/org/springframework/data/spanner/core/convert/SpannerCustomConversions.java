@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.convert;
+
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.ConverterFactory;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.mapping.model.SimpleTypeHolder;
+import org.springframework.data.spanner.core.mapping.SpannerValueBinding;
+import org.springframework.util.ClassUtils;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Registry of the conversions between Java types and the types Spanner columns map onto, see
+ * {@link SpannerValueBinding}. {@link java.time.Instant}, {@link java.util.Date}, {@link java.time.LocalDate},
+ * {@link java.math.BigDecimal}, {@link UUID} and enums are converted by default; additional {@link Converter}s,
+ * {@link ConverterFactory}s and {@link GenericConverter}s can be registered for user types. A converter whose target
+ * is a Spanner type defines how its source type is written, as does a converter factory whose target is one.
+ * <p>
+ * Conversions are resolved to a single converter per type when the mappers of an entity are created, so converting a
+ * value does not involve any converter lookup.
+ */
+public class SpannerCustomConversions {
+  private final SpannerConversionService conversionService = new SpannerConversionService();
+  private final Map<Class<?>, Class<?>> writeTargets = new LinkedHashMap<>();
+  private final SimpleTypeHolder simpleTypeHolder;
+
+  public SpannerCustomConversions() {
+    this(Collections.emptyList());
+  }
+
+  public SpannerCustomConversions(List<?> converters) {
+    // later registrations take precedence, so user converters override the defaults
+    for (Object converter : SpannerConverters.getConvertersToRegister()) {
+      register(converter);
+    }
+    for (Object converter : converters) {
+      register(converter);
+    }
+    this.simpleTypeHolder = new SimpleTypeHolder(new HashSet<>(writeTargets.keySet()), true);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void register(Object converter) {
+    if (converter instanceof GenericConverter) {
+      GenericConverter genericConverter = (GenericConverter) converter;
+      conversionService.addConverter(genericConverter);
+      if (genericConverter.getConvertibleTypes() != null) {
+        for (GenericConverter.ConvertiblePair pair : genericConverter.getConvertibleTypes()) {
+          registerWriteTarget(pair.getSourceType(), pair.getTargetType());
+        }
+      }
+    } else if (converter instanceof ConverterFactory) {
+      Class<?>[] types = resolveTypeArguments(converter, ConverterFactory.class);
+      conversionService.addConverterFactory((ConverterFactory<?, ?>) converter);
+      // the factory converts into subtypes of its target, which is written as is if Spanner supports it
+      registerWriteTarget(types[0], types[1]);
+    } else if (converter instanceof Converter) {
+      Class<?>[] types = resolveTypeArguments(converter, Converter.class);
+      conversionService.addConverter((Class<Object>) types[0], (Class<Object>) types[1],
+          (Converter<Object, Object>) converter);
+      registerWriteTarget(types[0], types[1]);
+    } else {
+      throw new IllegalArgumentException(String.format("Unsupported converter type %s", converter.getClass().getName()));
+    }
+  }
+
+  private static Class<?>[] resolveTypeArguments(Object converter, Class<?> converterType) {
+    Class<?>[] types = GenericTypeResolver.resolveTypeArguments(converter.getClass(), converterType);
+    if (types == null) {
+      throw new IllegalArgumentException(String.format(
+          "Unable to resolve the source and target types of converter %s", converter.getClass().getName()));
+    }
+    return types;
+  }
+
+  private void registerWriteTarget(Class<?> sourceType, Class<?> targetType) {
+    if (SpannerValueBinding.forType(sourceType) == null && SpannerValueBinding.forType(targetType) != null) {
+      writeTargets.remove(sourceType);
+      writeTargets.put(sourceType, targetType);
+    }
+  }
+
+  /**
+   * Returns the types with a registered conversion, which the mapping context must treat as simple values rather
+   * than entities.
+   */
+  public SimpleTypeHolder getSimpleTypeHolder() {
+    return simpleTypeHolder;
+  }
+
+  /**
+   * Returns the Spanner type values of the given type are written as: the type itself if Spanner supports it
+   * directly, the target of its writing converter, or {@literal null} if it cannot be written.
+   */
+  public Class<?> getSpannerType(Class<?> type) {
+    if (SpannerValueBinding.forType(type) != null) {
+      return type;
+    }
+    Class<?> target = writeTargets.get(type);
+    if (target != null) {
+      return target;
+    }
+    // the last registered converter of a supertype wins
+    List<Map.Entry<Class<?>, Class<?>>> entries = new ArrayList<>(writeTargets.entrySet());
+    for (int i = entries.size() - 1; i >= 0; i--) {
+      if (entries.get(i).getKey().isAssignableFrom(type)) {
+        return entries.get(i).getValue();
+      }
+    }
+    return type.isEnum() ? String.class : null;
+  }
+
+  /**
+   * Returns the conversion of values of the given type into their Spanner type, or {@literal null} if they are
+   * written as they are or cannot be written.
+   */
+  public Function<Object, Object> getWriteConversion(Class<?> type) {
+    Class<?> target = getSpannerType(type);
+    if (target == null || target == type) {
+      return null;
+    }
+    return conversion(type, target);
+  }
+
+  /**
+   * Returns the conversion of values read as the given Spanner type into the target type, or {@literal null} if they
+   * need no conversion or cannot be converted.
+   */
+  public Function<Object, Object> getReadConversion(Class<?> spannerType, Class<?> targetType) {
+    if (ClassUtils.isAssignable(targetType, spannerType)) {
+      return null;
+    }
+    return conversion(spannerType, targetType);
+  }
+
+  private Function<Object, Object> conversion(Class<?> sourceType, Class<?> targetType) {
+    final TypeDescriptor source = TypeDescriptor.valueOf(sourceType);
+    final TypeDescriptor target = TypeDescriptor.valueOf(targetType);
+    final GenericConverter converter = conversionService.converterFor(source, target);
+    if (converter == null) {
+      return null;
+    }
+    return value -> converter.convert(value, source, target);
+  }
+
+  /**
+   * Exposes the converter resolved for a pair of types, so that it can be invoked without any further lookup.
+   */
+  private static class SpannerConversionService extends DefaultConversionService {
+    GenericConverter converterFor(TypeDescriptor sourceType, TypeDescriptor targetType) {
+      return getConverter(sourceType, targetType);
+    }
+  }
+}
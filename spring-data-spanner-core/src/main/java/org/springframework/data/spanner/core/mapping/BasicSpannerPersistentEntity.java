@@ -16,14 +16,20 @@
 
 package org.springframework.data.spanner.core.mapping;
 
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.StructReader;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
 import org.springframework.data.mapping.model.BasicPersistentEntity;
+import org.springframework.data.mapping.model.MappingException;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * Created by rayt on 3/14/17.
@@ -32,8 +38,15 @@ public class BasicSpannerPersistentEntity<T> extends BasicPersistentEntity<T, Sp
     SpannerPersistentEntity<T>, ApplicationContextAware {
 
   private final String tableName;
-  private final Set<String> columnNames = new HashSet<>();
-  private final Map<String, String> columnNameToPropertyName = new HashMap<>();
+  private final EntityCache entityCache;
+  private final List<String> columnNames = new ArrayList<>();
+  private final List<String> columns = Collections.unmodifiableList(columnNames);
+  private final Map<String, SpannerPersistentProperty> columnNameToProperty = new HashMap<>();
+  private final List<SpannerPersistentProperty> interleavedProperties = new ArrayList<>();
+  private SpannerPersistentProperty[] primaryKeyProperties = new SpannerPersistentProperty[0];
+  private List<String> primaryKeyColumns = Collections.emptyList();
+  private List<Function<Object, Object>> primaryKeyConversions = Collections.emptyList();
+  private SpannerCustomConversions customConversions = new SpannerCustomConversions();
 
   public BasicSpannerPersistentEntity(TypeInformation<T> information) {
     super(information);
@@ -47,13 +60,35 @@ public class BasicSpannerPersistentEntity<T> extends BasicPersistentEntity<T, Sp
     } else {
       this.tableName = fallback;
     }
+
+    this.entityCache = this.findAnnotation(EntityCache.class);
   }
 
   @Override
   public void addPersistentProperty(SpannerPersistentProperty property) {
     super.addPersistentProperty(property);
-    this.columnNames.add(property.getColumnName());
-    columnNameToPropertyName.put(property.getColumnName(), property.getName());
+    if (property.isInterleaved()) {
+      verifyInterleaved(property);
+      // not a column, but an ARRAY<STRUCT> query result may be mapped onto it by name
+      this.columnNameToProperty.put(property.getColumnName(), property);
+      this.interleavedProperties.add(property);
+      return;
+    }
+    if (columnNameToProperty.put(property.getColumnName(), property) == null) {
+      this.columnNames.add(property.getColumnName());
+    }
+  }
+
+  private void verifyInterleaved(SpannerPersistentProperty property) {
+    if (!property.isCollectionLike() || property.isArray()) {
+      throw new MappingException(String.format("Interleaved property %s of %s must be a collection",
+          property.getName(), getType().getName()));
+    }
+    Interleaved interleaved = property.findAnnotation(Interleaved.class);
+    if (interleaved.lazy() && !property.getType().isAssignableFrom(SpannerLazyList.class)) {
+      throw new MappingException(String.format("Lazy interleaved property %s of %s must be declared as a List",
+          property.getName(), getType().getName()));
+    }
   }
 
   protected String extractTableNameFromClass(Class<?> entityClass) {
@@ -64,23 +99,183 @@ public class BasicSpannerPersistentEntity<T> extends BasicPersistentEntity<T, Sp
   public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
   }
 
+  /**
+   * Sets the conversions applied to primary key values, before the entity is verified.
+   */
+  void setCustomConversions(SpannerCustomConversions customConversions) {
+    this.customConversions = customConversions;
+  }
+
   @Override
   public String tableName() {
     return this.tableName;
   }
 
+  /**
+   * Returns the {@link EntityCache} settings of this entity, or {@literal null} if it is not cached.
+   */
+  public EntityCache getEntityCache() {
+    return entityCache;
+  }
+
+  /**
+   * Returns the primary {@link Key} of the given entity instance. Key parts of types Spanner does not support directly
+   * are converted as they are when written to their columns.
+   */
+  @Override
+  public Key getKey(Object object) {
+    SpannerPersistentProperty[] keyProperties = requirePrimaryKey();
+    PersistentPropertyAccessor accessor = getPropertyAccessor(object);
+    if (keyProperties.length == 1) {
+      return Key.of(convertKeyPart(0, accessor.getProperty(keyProperties[0])));
+    }
+    Object[] parts = new Object[keyProperties.length];
+    for (int i = 0; i < keyProperties.length; i++) {
+      parts[i] = convertKeyPart(i, accessor.getProperty(keyProperties[i]));
+    }
+    return Key.of(parts);
+  }
+
+  /**
+   * Returns the primary {@link Key} identified by the given value: a {@link Key} itself, or else the value of a single
+   * column primary key.
+   */
+  @Override
+  public Key getKeyForId(Object id) {
+    if (id instanceof Key) {
+      return (Key) id;
+    }
+    requirePrimaryKey();
+    return Key.of(convertKeyPart(0, id));
+  }
+
+  private Object convertKeyPart(int index, Object value) {
+    Function<Object, Object> conversion = primaryKeyConversions.get(index);
+    return conversion == null || value == null ? value : conversion.apply(value);
+  }
+
+  /**
+   * Returns the primary {@link Key} of a row that contains the primary key columns.
+   */
+  public Key getKey(StructReader row) {
+    SpannerPersistentProperty[] keyProperties = requirePrimaryKey();
+    if (keyProperties.length == 1) {
+      return Key.of(readKeyPart(row, row.getColumnIndex(keyProperties[0].getColumnName())));
+    }
+    Object[] parts = new Object[keyProperties.length];
+    for (int i = 0; i < keyProperties.length; i++) {
+      parts[i] = readKeyPart(row, row.getColumnIndex(keyProperties[i].getColumnName()));
+    }
+    return Key.of(parts);
+  }
+
+  /**
+   * Returns whether the property is part of the primary key.
+   */
+  public boolean isPrimaryKeyProperty(SpannerPersistentProperty property) {
+    for (SpannerPersistentProperty keyProperty : primaryKeyProperties) {
+      if (keyProperty.equals(property)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean hasCompositeKey() {
+    return primaryKeyProperties.length > 1 || (primaryKeyProperties.length == 1 && !primaryKeyProperties[0].isIdProperty());
+  }
+
+  /**
+   * Returns the {@link Interleaved} child collections of this entity.
+   */
+  public List<SpannerPersistentProperty> getInterleavedProperties() {
+    return interleavedProperties;
+  }
+
+  @Override
+  public List<String> primaryKeyColumns() {
+    return primaryKeyColumns;
+  }
+
+  private SpannerPersistentProperty[] requirePrimaryKey() {
+    if (primaryKeyProperties.length == 0) {
+      throw new SpannerDataException(String.format("No primary key defined for %s", getType().getName()));
+    }
+    return primaryKeyProperties;
+  }
+
+  private static Object readKeyPart(StructReader row, int index) {
+    if (row.isNull(index)) {
+      return null;
+    }
+    switch (row.getColumnType(index).getCode()) {
+      case BOOL:
+        return row.getBoolean(index);
+      case INT64:
+        return row.getLong(index);
+      case FLOAT64:
+        return row.getDouble(index);
+      case STRING:
+        return row.getString(index);
+      case BYTES:
+        return row.getBytes(index);
+      case DATE:
+        return row.getDate(index);
+      case TIMESTAMP:
+        return row.getTimestamp(index);
+      default:
+        throw new SpannerDataException(String.format("Unsupported key column type: %s", row.getColumnType(index)));
+    }
+  }
+
   @Override
   public SpannerPersistentProperty getPersistentPropertyByColumnName(String columnName) {
-    return getPersistentProperty(columnNameToPropertyName.get(columnName));
+    return columnNameToProperty.get(columnName);
   }
 
+  /**
+   * Returns the column names in property declaration order. The list is stable, so rows read with it always have the
+   * same shape.
+   */
   @Override
-  public Iterable<String> columns() {
-    return Collections.unmodifiableSet(columnNames);
+  public List<String> columns() {
+    return columns;
   }
 
   @Override
   public void verify() {
     super.verify();
+
+    List<SpannerPersistentProperty> keyProperties = new ArrayList<>();
+    for (String column : columnNames) {
+      SpannerPersistentProperty property = columnNameToProperty.get(column);
+      if (property.getPrimaryKeyOrder() > 0) {
+        keyProperties.add(property);
+      }
+    }
+    if (keyProperties.isEmpty()) {
+      if (hasIdProperty()) {
+        keyProperties.add(getIdProperty());
+      }
+    } else {
+      keyProperties.sort(Comparator.comparingInt(SpannerPersistentProperty::getPrimaryKeyOrder));
+      for (int i = 1; i < keyProperties.size(); i++) {
+        if (keyProperties.get(i).getPrimaryKeyOrder() == keyProperties.get(i - 1).getPrimaryKeyOrder()) {
+          throw new MappingException(String.format("Duplicate primary key order %d on %s",
+              keyProperties.get(i).getPrimaryKeyOrder(), getType().getName()));
+        }
+      }
+    }
+
+    List<String> keyColumns = new ArrayList<>();
+    List<Function<Object, Object>> keyConversions = new ArrayList<>();
+    for (SpannerPersistentProperty property : keyProperties) {
+      keyColumns.add(property.getColumnName());
+      keyConversions.add(customConversions.getWriteConversion(property.getType()));
+    }
+    this.primaryKeyProperties = keyProperties.toArray(new SpannerPersistentProperty[keyProperties.size()]);
+    this.primaryKeyColumns = Collections.unmodifiableList(keyColumns);
+    this.primaryKeyConversions = keyConversions;
   }
 }
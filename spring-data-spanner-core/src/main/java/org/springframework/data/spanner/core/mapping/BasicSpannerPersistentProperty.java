@@ -27,12 +27,18 @@ import java.lang.reflect.Field;
 public class BasicSpannerPersistentProperty extends AnnotationBasedPersistentProperty<SpannerPersistentProperty> implements
     SpannerPersistentProperty {
 
-  private FieldNamingStrategy fieldNamingStrategy;
+  private final FieldNamingStrategy fieldNamingStrategy;
+  private final String columnName;
+  private final int primaryKeyOrder;
 
   public BasicSpannerPersistentProperty(Field field, PropertyDescriptor propertyDescriptor, PersistentEntity<?, SpannerPersistentProperty> owner, SimpleTypeHolder simpleTypeHolder, FieldNamingStrategy fieldNamingStrategy) {
     super(field, propertyDescriptor, owner, simpleTypeHolder);
     this.fieldNamingStrategy = fieldNamingStrategy == null ? PropertyNameFieldNamingStrategy.INSTANCE
         : fieldNamingStrategy;
+    this.columnName = resolveColumnName();
+
+    PrimaryKey primaryKey = findAnnotation(PrimaryKey.class);
+    this.primaryKeyOrder = primaryKey != null ? primaryKey.keyOrder() : 0;
   }
 
   @Override
@@ -42,6 +48,20 @@ public class BasicSpannerPersistentProperty extends AnnotationBasedPersistentPro
 
   @Override
   public String getColumnName() {
+    return columnName;
+  }
+
+  @Override
+  public boolean isInterleaved() {
+    return isAnnotationPresent(Interleaved.class);
+  }
+
+  @Override
+  public int getPrimaryKeyOrder() {
+    return primaryKeyOrder;
+  }
+
+  private String resolveColumnName() {
     if (hasExplicitColumnName()) {
       return getAnnotatedColumnName();
     }
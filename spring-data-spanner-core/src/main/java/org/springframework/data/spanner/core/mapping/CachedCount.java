@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.mapping;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves {@code SpannerTemplate.count(Class)} for the entity from memory. The count is read once on first use and then
+ * refreshed in the background at the given interval, so it may lag behind the table by up to that long.
+ */
+@Documented
+@Target(value= ElementType.TYPE)
+@Retention(value= RetentionPolicy.RUNTIME)
+public @interface CachedCount {
+  /**
+   * Time between the end of one refresh and the start of the next.
+   */
+  long refreshInterval() default 60;
+
+  TimeUnit timeUnit() default TimeUnit.SECONDS;
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.mapping;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opts an entity into the read-through cache used by {@code SpannerTemplate.find(Class, Key)}. Rows are evicted when
+ * the entity is written or deleted through the same template.
+ */
+@Documented
+@Target(value= ElementType.TYPE)
+@Retention(value= RetentionPolicy.RUNTIME)
+public @interface EntityCache {
+  /**
+   * Maximum number of rows kept for the table.
+   */
+  long maximumSize() default 10000;
+
+  /**
+   * How long a row is served from the cache after it was read.
+   */
+  long expireAfterWrite() default 300;
+
+  TimeUnit timeUnit() default TimeUnit.SECONDS;
+}
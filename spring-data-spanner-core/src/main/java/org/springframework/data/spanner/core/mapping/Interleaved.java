@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.mapping;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a collection of entities stored in a table interleaved in the table of the owning entity. The child rows are
+ * read by the primary key prefix of the parent instead of a column, and are written along with the parent.
+ * <p>
+ * Children are loaded for all parents of a read with a single additional read, or on first access of the collection
+ * if {@link #lazy()} is set. A query may also populate them itself by selecting an {@code ARRAY} of {@code STRUCT}s
+ * named after the property, e.g. {@code ARRAY(SELECT AS STRUCT * FROM Child c WHERE c.ParentId = p.ParentId) AS
+ * children}.
+ */
+@Documented
+@Target(value= ElementType.FIELD)
+@Retention(value= RetentionPolicy.RUNTIME)
+public @interface Interleaved {
+  /**
+   * Whether the children are read on first access instead of along with the parent. Lazy collections must be declared
+   * as {@link java.util.List}.
+   */
+  boolean lazy() default false;
+}
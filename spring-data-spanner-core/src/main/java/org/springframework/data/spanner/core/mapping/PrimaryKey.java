@@ -0,0 +1,34 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.mapping;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a property as part of the primary key. Properties of a multi-part key are ordered by {@link #keyOrder()};
+ * entities without any {@code PrimaryKey} property use their {@link org.springframework.data.annotation.Id}.
+ */
+@Documented
+@Target(value= ElementType.FIELD)
+@Retention(value= RetentionPolicy.RUNTIME)
+public @interface PrimaryKey {
+  /**
+   * The 1-based position of the property in the primary key.
+   */
+  int keyOrder() default 1;
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.mapping;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-only {@link List} of interleaved children that reads them on first access.
+ */
+public class SpannerLazyList<E> extends AbstractList<E> {
+  private final Supplier<List<E>> loader;
+  private volatile List<E> elements;
+
+  public SpannerLazyList(Supplier<List<E>> loader) {
+    this.loader = loader;
+  }
+
+  /**
+   * Returns whether the elements have been read. Writes of the owning entity skip collections that were never loaded,
+   * as they cannot have been changed.
+   */
+  public boolean isLoaded() {
+    return elements != null;
+  }
+
+  private List<E> elements() {
+    List<E> elements = this.elements;
+    if (elements == null) {
+      synchronized (this) {
+        elements = this.elements;
+        if (elements == null) {
+          elements = loader.get();
+          this.elements = elements;
+        }
+      }
+    }
+    return elements;
+  }
+
+  @Override
+  public E get(int index) {
+    return elements().get(index);
+  }
+
+  @Override
+  public int size() {
+    return elements().size();
+  }
+}
@@ -23,6 +23,7 @@ import org.springframework.data.mapping.context.AbstractMappingContext;
 import org.springframework.data.mapping.model.FieldNamingStrategy;
 import org.springframework.data.mapping.model.PropertyNameFieldNamingStrategy;
 import org.springframework.data.mapping.model.SimpleTypeHolder;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
 import org.springframework.data.util.TypeInformation;
 
 import java.beans.PropertyDescriptor;
@@ -36,17 +37,30 @@ public class SpannerMappingContext extends AbstractMappingContext<BasicSpannerPe
 
   private static final FieldNamingStrategy DEFAULT_NAMING_STRATEGY = PropertyNameFieldNamingStrategy.INSTANCE;
   private FieldNamingStrategy fieldNamingStrategy = DEFAULT_NAMING_STRATEGY;
+  private SpannerCustomConversions customConversions = new SpannerCustomConversions();
 
   private ApplicationContext context;
 
   public SpannerMappingContext() {
-
+    setSimpleTypeHolder(customConversions.getSimpleTypeHolder());
   }
 
   public void setFieldNamingStrategy(FieldNamingStrategy fieldNamingStrategy) {
     this.fieldNamingStrategy = fieldNamingStrategy == null ? DEFAULT_NAMING_STRATEGY : fieldNamingStrategy;
   }
 
+  public SpannerCustomConversions getCustomConversions() {
+    return customConversions;
+  }
+
+  /**
+   * Sets the conversions of non-Spanner property types. Must be called before any entity is added to the context.
+   */
+  public void setCustomConversions(SpannerCustomConversions customConversions) {
+    this.customConversions = customConversions == null ? new SpannerCustomConversions() : customConversions;
+    setSimpleTypeHolder(this.customConversions.getSimpleTypeHolder());
+  }
+
   @Override
   public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
     this.context = applicationContext;
@@ -55,6 +69,7 @@ public class SpannerMappingContext extends AbstractMappingContext<BasicSpannerPe
   @Override
   protected <T> BasicSpannerPersistentEntity<T> createPersistentEntity(TypeInformation<T> typeInformation) {
     BasicSpannerPersistentEntity<T> entity = new BasicSpannerPersistentEntity<T>(typeInformation);
+    entity.setCustomConversions(customConversions);
 
     if (context != null) {
       entity.setApplicationContext(context);
@@ -16,21 +16,20 @@
 
 package org.springframework.data.spanner.core.mapping;
 
-import com.google.cloud.Date;
-import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.*;
 import org.springframework.data.mapping.PersistentPropertyAccessor;
-import org.springframework.data.mapping.PropertyHandler;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Created by rayt on 3/14/17.
  */
 public class SpannerMutationFactory {
   private final SpannerMappingContext mappingContext;
+  private final ConcurrentMap<Class<?>, SpannerMutationWriter<?>> mutationWriters = new ConcurrentHashMap<>();
 
   public SpannerMutationFactory(SpannerMappingContext mappingContext) {
     this.mappingContext = mappingContext;
@@ -56,61 +55,95 @@ public class SpannerMutationFactory {
     final BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
     KeySet.Builder builder = KeySet.newBuilder();
     for (T entity : entities) {
-      final PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(entity);
-      SpannerPersistentProperty idProperty = persistentEntity.getIdProperty();
-      Object value = accessor.getProperty(idProperty);
-      builder.addKey(Key.of(value));
+      builder.addKey(persistentEntity.getKey(entity));
     }
     return Mutation.delete(persistentEntity.tableName(), builder.build());
   }
 
   public <T> Mutation delete(T object) {
-    final Class<?> entityType = object.getClass();
     final BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(object.getClass());
-    final PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(object);
-
-    final SpannerPersistentProperty idProperty = persistentEntity.getIdProperty();
-    Class<?> propertyType = idProperty.getType();
-    Object value = accessor.getProperty(idProperty);
-    Key key = Key.of(value);
+    final Key key = persistentEntity.getKey(object);
 
     final Mutation mutation = Mutation.delete(persistentEntity.tableName(), key);
     return mutation;
   }
 
+  /**
+   * Creates the mutation of the given object. An update given property names only writes the primary key and the
+   * named properties, any other mutation writes all of them.
+   */
   public <T> Mutation createMutation(Mutation.Op op, T object, String... properties) {
-    final Set<String> includeProperties = new HashSet<>(Arrays.asList(properties));
-    final Class<?> entityType = object.getClass();
-    final BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(object.getClass());
-    final Mutation.WriteBuilder writeBuilder = writeBuilder(op, persistentEntity.tableName());
-    final PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(object);
-    persistentEntity.doWithProperties(new PropertyHandler<SpannerPersistentProperty>() {
-      @Override
-      public void doWithPersistentProperty(SpannerPersistentProperty spannerPersistentProperty) {
-        if (!spannerPersistentProperty.isIdProperty() && op == Mutation.Op.UPDATE && !includeProperties.contains(spannerPersistentProperty.getName())) {
-          return;
-        }
-        Object value = accessor.getProperty(spannerPersistentProperty);
-        Class<?> propertyType = spannerPersistentProperty.getType();
-        ValueBinder<Mutation.WriteBuilder> set = writeBuilder.set(spannerPersistentProperty.getColumnName());
-        if (String.class.isAssignableFrom(propertyType)) {
-          set.to((String) value);
-        } else if (Boolean.class.isAssignableFrom(propertyType)) {
-          set.to((Boolean) value);
-        } else if (Date.class.isAssignableFrom(propertyType)) {
-          set.to((Date) value);
-        } else if (Double.class.isAssignableFrom(propertyType)) {
-          set.to((Double) value);
-        } else if (Long.class.isAssignableFrom(propertyType)) {
-          set.to((Long) value);
-        } else if (Timestamp.class.isAssignableFrom(propertyType)) {
-          set.to((Timestamp) value);
-        } else {
-          throw new SpannerDataException(String.format("Unsupported mapping for type: %s", value.getClass()));
-        }
+    final SpannerMutationWriter<?> writer = getMutationWriter(object.getClass());
+    final Mutation.WriteBuilder writeBuilder = writeBuilder(op, writer.getPersistentEntity().tableName());
+    return writer.write(writeBuilder, object, isPartialUpdate(op, properties) ? properties : null).build();
+  }
+
+  private static boolean isPartialUpdate(Mutation.Op op, String[] properties) {
+    return op == Mutation.Op.UPDATE && properties != null && properties.length > 0;
+  }
+
+  /**
+   * Creates the mutation of the given object followed by the mutations of its {@link Interleaved} children, so that
+   * they can be written in the same batch. Children are written with the same operation, except for an update, which
+   * upserts them as some may be new. An update given property names only writes the children of the named
+   * collections. Children removed from a collection are not deleted, and lazy collections that were never loaded are
+   * skipped.
+   */
+  public <T> List<Mutation> createMutations(Mutation.Op op, T object, String... properties) {
+    List<Mutation> mutations = new ArrayList<>();
+    addMutations(mutations, op, object, properties);
+    return mutations;
+  }
+
+  private void addMutations(List<Mutation> mutations, Mutation.Op op, Object object, String[] properties) {
+    mutations.add(createMutation(op, object, properties));
+
+    BasicSpannerPersistentEntity<?> persistentEntity = getMutationWriter(object.getClass()).getPersistentEntity();
+    List<SpannerPersistentProperty> interleavedProperties = persistentEntity.getInterleavedProperties();
+    if (interleavedProperties.isEmpty()) {
+      return;
+    }
+    PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(object);
+    Mutation.Op childOp = op == Mutation.Op.UPDATE ? Mutation.Op.INSERT_OR_UPDATE : op;
+    for (SpannerPersistentProperty property : interleavedProperties) {
+      if (isPartialUpdate(op, properties) && !contains(properties, property.getName())) {
+        continue;
+      }
+      Object children = accessor.getProperty(property);
+      if (children == null || (children instanceof SpannerLazyList && !((SpannerLazyList<?>) children).isLoaded())) {
+        continue;
       }
-    });
-    return writeBuilder.build();
+      for (Object child : (Iterable<?>) children) {
+        addMutations(mutations, childOp, child, null);
+      }
+    }
+  }
+
+  private static boolean contains(String[] names, String name) {
+    for (String candidate : names) {
+      if (name.equals(candidate)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the cached {@link SpannerMutationWriter} for the given entity type, creating it on first use.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> SpannerMutationWriter<T> getMutationWriter(Class<T> entityClass) {
+    SpannerMutationWriter<?> writer = mutationWriters.get(entityClass);
+    if (writer == null) {
+      BasicSpannerPersistentEntity<T> persistentEntity =
+          (BasicSpannerPersistentEntity<T>) mappingContext.getPersistentEntity(entityClass);
+      writer = new SpannerMutationWriter<T>(persistentEntity, mappingContext.getCustomConversions());
+      SpannerMutationWriter<?> existing = mutationWriters.putIfAbsent(entityClass, writer);
+      if (existing != null) {
+        writer = existing;
+      }
+    }
+    return (SpannerMutationWriter<T>) writer;
   }
 
   protected Mutation.WriteBuilder writeBuilder(Mutation.Op op, String tableName) {
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.mapping;
+
+import com.google.cloud.spanner.Mutation;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes the properties of a persistent entity into a {@link Mutation.WriteBuilder}. Column names and value bindings
+ * are resolved once per entity, so building a mutation is a loop over preresolved slots. Properties of types Spanner
+ * does not support directly are written through the conversion resolved for them from the
+ * {@link SpannerCustomConversions}.
+ */
+public class SpannerMutationWriter<T> {
+  private final BasicSpannerPersistentEntity<T> persistentEntity;
+  private final SpannerPersistentProperty[] properties;
+  private final String[] propertyNames;
+  private final String[] columnNames;
+  private final boolean[] idProperties;
+  private final SpannerValueBinding[] bindings;
+  private final boolean[] arrays;
+  private final List<Function<Object, Object>> conversions;
+
+  SpannerMutationWriter(BasicSpannerPersistentEntity<T> persistentEntity, SpannerCustomConversions customConversions) {
+    this.persistentEntity = persistentEntity;
+
+    final List<SpannerPersistentProperty> properties = new ArrayList<>();
+    persistentEntity.doWithProperties(new PropertyHandler<SpannerPersistentProperty>() {
+      @Override
+      public void doWithPersistentProperty(SpannerPersistentProperty spannerPersistentProperty) {
+        // interleaved children are written as mutations of their own table
+        if (!spannerPersistentProperty.isInterleaved()) {
+          properties.add(spannerPersistentProperty);
+        }
+      }
+    });
+
+    int size = properties.size();
+    this.properties = properties.toArray(new SpannerPersistentProperty[size]);
+    this.propertyNames = new String[size];
+    this.columnNames = new String[size];
+    this.idProperties = new boolean[size];
+    this.bindings = new SpannerValueBinding[size];
+    this.arrays = new boolean[size];
+    this.conversions = new ArrayList<>(Collections.<Function<Object, Object>>nCopies(size, null));
+    for (int i = 0; i < size; i++) {
+      SpannerPersistentProperty property = this.properties[i];
+      this.propertyNames[i] = property.getName();
+      this.columnNames[i] = property.getColumnName();
+      this.idProperties[i] = persistentEntity.isPrimaryKeyProperty(property);
+      SpannerValueBinding binding = SpannerValueBinding.forType(property.getType());
+      if (binding == null && property.isCollectionLike()) {
+        binding = SpannerValueBinding.forType(property.getComponentType());
+        if (binding == null) {
+          binding = convertedBinding(i, property.getComponentType(), customConversions);
+        }
+        this.arrays[i] = binding != null;
+      } else if (binding == null) {
+        binding = convertedBinding(i, property.getType(), customConversions);
+      }
+      this.bindings[i] = binding;
+    }
+  }
+
+  public BasicSpannerPersistentEntity<T> getPersistentEntity() {
+    return persistentEntity;
+  }
+
+  /**
+   * Writes the given object into the builder. When {@code includeProperties} is not {@literal null} only the primary
+   * key and the named properties are written.
+   */
+  public Mutation.WriteBuilder write(Mutation.WriteBuilder writeBuilder, Object object, String[] includeProperties) {
+    PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(object);
+    for (int i = 0; i < properties.length; i++) {
+      if (includeProperties != null && !idProperties[i] && !contains(includeProperties, propertyNames[i])) {
+        continue;
+      }
+      SpannerValueBinding binding = bindings[i];
+      if (binding == null) {
+        throw new SpannerDataException(String.format("Unsupported mapping for type: %s", properties[i].getType()));
+      }
+      Object value = accessor.getProperty(properties[i]);
+      Function<Object, Object> conversion = conversions.get(i);
+      if (conversion != null && value != null) {
+        value = arrays[i] ? convertElements(value, conversion) : conversion.apply(value);
+      }
+      if (arrays[i]) {
+        binding.bindArray(writeBuilder.set(columnNames[i]), value);
+      } else {
+        binding.bind(writeBuilder.set(columnNames[i]), value);
+      }
+    }
+    return writeBuilder;
+  }
+
+  private SpannerValueBinding convertedBinding(int index, Class<?> type, SpannerCustomConversions customConversions) {
+    if (type == null) {
+      return null;
+    }
+    Function<Object, Object> conversion = customConversions.getWriteConversion(type);
+    if (conversion == null) {
+      return null;
+    }
+    this.conversions.set(index, conversion);
+    return SpannerValueBinding.forType(customConversions.getSpannerType(type));
+  }
+
+  private static List<Object> convertElements(Object values, Function<Object, Object> conversion) {
+    Collection<?> elements = values instanceof Collection
+        ? (Collection<?>) values
+        : Arrays.asList((Object[]) values);
+    List<Object> converted = new ArrayList<>(elements.size());
+    for (Object element : elements) {
+      converted.add(element == null ? null : conversion.apply(element));
+    }
+    return converted;
+  }
+
+  private static boolean contains(String[] names, String name) {
+    for (String candidate : names) {
+      if (name.equals(candidate)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
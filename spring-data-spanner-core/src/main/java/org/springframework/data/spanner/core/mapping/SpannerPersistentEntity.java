@@ -16,13 +16,37 @@
 
 package org.springframework.data.spanner.core.mapping;
 
+import com.google.cloud.spanner.Key;
 import org.springframework.data.mapping.PersistentEntity;
 
+import java.util.List;
+
 /**
  * Created by rayt on 3/14/17.
  */
 public interface SpannerPersistentEntity<T> extends PersistentEntity<T, SpannerPersistentProperty> {
   String tableName();
   SpannerPersistentProperty getPersistentPropertyByColumnName(String columnName);
-  Iterable<String> columns();
+  List<String> columns();
+
+  /**
+   * Returns the primary key columns in key order.
+   */
+  List<String> primaryKeyColumns();
+
+  /**
+   * Returns whether the primary key consists of more than one column, or is not the {@code @Id} property.
+   */
+  boolean hasCompositeKey();
+
+  /**
+   * Returns the primary {@link Key} of the given entity instance.
+   */
+  Key getKey(Object object);
+
+  /**
+   * Returns the primary {@link Key} identified by the given id, which is either a {@link Key} or the value of a single
+   * column primary key.
+   */
+  Key getKeyForId(Object id);
 }
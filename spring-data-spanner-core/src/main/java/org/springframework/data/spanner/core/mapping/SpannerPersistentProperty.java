@@ -23,4 +23,15 @@ import org.springframework.data.mapping.PersistentProperty;
  */
 public interface SpannerPersistentProperty extends PersistentProperty<SpannerPersistentProperty> {
   String getColumnName();
+
+  /**
+   * Returns the position of the property in a multi-part primary key, or {@literal 0} if it is not annotated with
+   * {@link PrimaryKey}.
+   */
+  int getPrimaryKeyOrder();
+
+  /**
+   * Returns whether the property is a collection of {@link Interleaved} children rather than a column.
+   */
+  boolean isInterleaved();
 }
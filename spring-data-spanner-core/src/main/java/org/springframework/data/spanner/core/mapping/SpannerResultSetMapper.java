@@ -17,15 +17,10 @@
 package org.springframework.data.spanner.core.mapping;
 
 import com.google.cloud.spanner.ResultSet;
-import com.google.cloud.spanner.Struct;
-import com.google.cloud.spanner.Type;
-import org.springframework.beans.BeanUtils;
-import org.springframework.data.mapping.PersistentPropertyAccessor;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Created by rayt on 3/14/17.
@@ -38,17 +33,115 @@ public class SpannerResultSetMapper {
   }
 
   public <T> void map(ResultSet resultSet, Class<T> entityClass, List<T> target) {
+    map(resultSet, entityClass, entityClass, target);
+  }
+
+  /**
+   * Maps the rows of an entity onto the target type, see {@link SpannerStructObjectMapper#getRowMapper(Class, Class,
+   * com.google.cloud.spanner.Type)}.
+   */
+  public <P> void map(ResultSet resultSet, Class<?> entityClass, Class<P> targetType, List<P> target) {
+    SpannerRowMapper<P> rowMapper = null;
+    while (resultSet.next()) {
+      if (rowMapper == null) {
+        rowMapper = objectMapper.getRowMapper(entityClass, targetType, resultSet.getType());
+      }
+      target.add(rowMapper.map(resultSet));
+    }
+  }
+
+  /**
+   * Like {@link #map(ResultSet, Class, Class, List)}, but measures the time spent mapping rows, apart from the time
+   * spent reading them.
+   *
+   * @return the nanoseconds spent mapping rows.
+   */
+  public <P> long mapTimed(ResultSet resultSet, Class<?> entityClass, Class<P> targetType, List<P> target) {
+    SpannerRowMapper<P> rowMapper = null;
+    long mappingNanos = 0;
     while (resultSet.next()) {
-      T object = BeanUtils.instantiate(entityClass);
-      objectMapper.map(resultSet.getCurrentRowAsStruct(), object);
-      target.add(object);
+      long start = System.nanoTime();
+      if (rowMapper == null) {
+        rowMapper = objectMapper.getRowMapper(entityClass, targetType, resultSet.getType());
+      }
+      target.add(rowMapper.map(resultSet));
+      mappingNanos += System.nanoTime() - start;
     }
+    return mappingNanos;
   }
 
   public <T> List<T> mapToUnmodifiableList(ResultSet resultSet, Class<T> entityClass) {
-    ArrayList<T> result = new ArrayList<T>();
-    this.map(resultSet, entityClass, result);
+    return mapToUnmodifiableList(resultSet, entityClass, entityClass);
+  }
+
+  public <P> List<P> mapToUnmodifiableList(ResultSet resultSet, Class<?> entityClass, Class<P> targetType) {
+    ArrayList<P> result = new ArrayList<P>();
+    this.map(resultSet, entityClass, targetType, result);
     return Collections.unmodifiableList(result);
   }
 
+  /**
+   * Returns an {@link Iterator} that maps each row only when it is requested. The {@link ResultSet} is closed once the
+   * last row has been consumed.
+   */
+  public <T> Iterator<T> iterator(ResultSet resultSet, Class<T> entityClass) {
+    return iterator(resultSet, entityClass, entityClass);
+  }
+
+  public <P> Iterator<P> iterator(ResultSet resultSet, Class<?> entityClass, Class<P> targetType) {
+    return new MappingResultSetIterator<P>(resultSet, entityClass, targetType);
+  }
+
+  /**
+   * Returns a lazily mapped {@link Stream} over the given {@link ResultSet}. The {@link ResultSet} is closed when the
+   * stream is exhausted or closed, so callers should use it in a try-with-resources block when they may not consume
+   * every row.
+   */
+  public <T> Stream<T> stream(final ResultSet resultSet, Class<T> entityClass) {
+    return stream(resultSet, entityClass, entityClass);
+  }
+
+  public <P> Stream<P> stream(final ResultSet resultSet, Class<?> entityClass, Class<P> targetType) {
+    Spliterator<P> spliterator = Spliterators.spliteratorUnknownSize(iterator(resultSet, entityClass, targetType),
+        Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(resultSet::close);
+  }
+
+  private class MappingResultSetIterator<T> implements Iterator<T> {
+    private final ResultSet resultSet;
+    private final Class<?> entityClass;
+    private final Class<T> targetType;
+    private SpannerRowMapper<T> rowMapper;
+    private Boolean hasNext;
+
+    MappingResultSetIterator(ResultSet resultSet, Class<?> entityClass, Class<T> targetType) {
+      this.resultSet = resultSet;
+      this.entityClass = entityClass;
+      this.targetType = targetType;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (hasNext == null) {
+        hasNext = resultSet.next();
+        if (!hasNext) {
+          resultSet.close();
+        }
+      }
+      return hasNext;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      hasNext = null;
+      if (rowMapper == null) {
+        rowMapper = objectMapper.getRowMapper(entityClass, targetType, resultSet.getType());
+      }
+      return rowMapper.map(resultSet);
+    }
+  }
+
 }
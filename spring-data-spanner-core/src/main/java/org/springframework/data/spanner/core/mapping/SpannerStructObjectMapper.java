@@ -18,69 +18,170 @@ package org.springframework.data.spanner.core.mapping;
 
 import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.Type;
-import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.ProjectionInformation;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
+import org.springframework.util.ObjectUtils;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Created by rayt on 3/14/17.
  */
 public class SpannerStructObjectMapper {
   private final SpannerMappingContext mappingContext;
+  private final ConcurrentMap<RowMapperKey, SpannerRowMapper<?>> rowMappers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<RowMapperKey, List<String>> projectionColumns = new ConcurrentHashMap<>();
+  private ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
 
   public SpannerStructObjectMapper(SpannerMappingContext mappingContext) {
     this.mappingContext = mappingContext;
   }
 
+  public SpannerCustomConversions getCustomConversions() {
+    return mappingContext.getCustomConversions();
+  }
+
+  public ProjectionFactory getProjectionFactory() {
+    return projectionFactory;
+  }
+
+  /**
+   * Sets the {@link ProjectionFactory} used to create interface projections.
+   */
+  public void setProjectionFactory(ProjectionFactory projectionFactory) {
+    this.projectionFactory = projectionFactory;
+  }
+
   public void map(Struct s, Object target) {
-    Class<?> entityType = target.getClass();
-    BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(target.getClass());
-    PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(target);
-
-    for (Type.StructField field : s.getType().getStructFields()) {
-      String name = field.getName();
-      SpannerPersistentProperty property = persistentEntity.getPersistentPropertyByColumnName(name);
-      if (s.isNull(name)) {
-        if (property.getType().isPrimitive()) {
-          // TODO probably not good to do this anyways...
-          // TODO or maybe throw an error?
+    getRowMapper(target.getClass(), s.getType()).map(s, target);
+  }
+
+  /**
+   * Returns the cached {@link SpannerStructRowMapper} for rows of the given {@link Type}, compiling it on first use.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> SpannerStructRowMapper<T> getRowMapper(Class<T> entityClass, Type rowType) {
+    RowMapperKey key = new RowMapperKey(entityClass, entityClass, rowType);
+    SpannerRowMapper<?> rowMapper = rowMappers.get(key);
+    if (rowMapper == null) {
+      BasicSpannerPersistentEntity<T> persistentEntity =
+          (BasicSpannerPersistentEntity<T>) mappingContext.getPersistentEntity(entityClass);
+      rowMapper = cache(key, new SpannerStructRowMapper<T>(persistentEntity, rowType, this));
+    }
+    return (SpannerStructRowMapper<T>) rowMapper;
+  }
+
+  /**
+   * Returns the cached {@link SpannerRowMapper} creating instances of the target type from rows of the given entity.
+   * The target type is either the entity class itself, an interface projection backed by the entity, or a DTO that is
+   * populated directly from the row.
+   */
+  @SuppressWarnings("unchecked")
+  public <P> SpannerRowMapper<P> getRowMapper(Class<?> entityClass, final Class<P> targetType, Type rowType) {
+    if (targetType.equals(entityClass)) {
+      return (SpannerRowMapper<P>) getRowMapper(entityClass, rowType);
+    }
+    RowMapperKey key = new RowMapperKey(entityClass, targetType, rowType);
+    SpannerRowMapper<?> rowMapper = rowMappers.get(key);
+    if (rowMapper == null) {
+      if (targetType.isInterface()) {
+        final SpannerStructRowMapper<?> entityMapper = getRowMapper(entityClass, rowType);
+        final ProjectionFactory factory = this.projectionFactory;
+        rowMapper = cache(key, (SpannerRowMapper<P>) row -> factory.createProjection(targetType, entityMapper.map(row)));
+      } else {
+        rowMapper = cache(key,
+            new SpannerStructProjectionMapper<P>(mappingContext.getPersistentEntity(entityClass), targetType, rowType,
+                getCustomConversions()));
+      }
+    }
+    return (SpannerRowMapper<P>) rowMapper;
+  }
+
+  private SpannerRowMapper<?> cache(RowMapperKey key, SpannerRowMapper<?> rowMapper) {
+    SpannerRowMapper<?> existing = rowMappers.putIfAbsent(key, rowMapper);
+    return existing != null ? existing : rowMapper;
+  }
+
+  /**
+   * Returns the columns of the entity needed to create the given projection type: the input properties of a closed
+   * interface projection, or the writable properties of a DTO. Open interface projections need all columns.
+   */
+  public List<String> getProjectionColumns(Class<?> entityClass, Class<?> projectionType) {
+    RowMapperKey key = new RowMapperKey(entityClass, projectionType, null);
+    List<String> columns = projectionColumns.get(key);
+    if (columns == null) {
+      columns = resolveProjectionColumns(mappingContext.getPersistentEntity(entityClass), projectionType);
+      projectionColumns.putIfAbsent(key, columns);
+    }
+    return columns;
+  }
+
+  private List<String> resolveProjectionColumns(BasicSpannerPersistentEntity<?> persistentEntity,
+                                                Class<?> projectionType) {
+    if (projectionType.equals(persistentEntity.getType())) {
+      return persistentEntity.columns();
+    }
+    List<String> columns = new ArrayList<>();
+    if (projectionType.isInterface()) {
+      ProjectionInformation information = projectionFactory.getProjectionInformation(projectionType);
+      if (!information.isClosed()) {
+        return persistentEntity.columns();
+      }
+      for (PropertyDescriptor descriptor : information.getInputProperties()) {
+        SpannerPersistentProperty property = persistentEntity.getPersistentProperty(descriptor.getName());
+        if (property != null && !property.isInterleaved()) {
+          columns.add(property.getColumnName());
+        }
+      }
+    } else {
+      for (String column : persistentEntity.columns()) {
+        SpannerPersistentProperty property = persistentEntity.getPersistentPropertyByColumnName(column);
+        if (SpannerStructProjectionMapper.propertyType(projectionType, property.getName()) != null) {
+          columns.add(column);
         }
-        else { accessor.setProperty(property, null); }
-        continue;
       }
-      switch (field.getType().getCode()) {
-        case ARRAY:
-          switch (field.getType().getArrayElementType().getCode()) {
-            // TODO: implement all ARRAY types
-            case BOOL:
-              if (property.getActualType().isArray())
-                accessor.setProperty(property, s.getBooleanArray(name));
-              else
-                accessor.setProperty(property, s.getBooleanList(name));
-              break;
-          }
-          break;
-        case BOOL:
-          accessor.setProperty(property, s.getBoolean(name));
-          break;
-        case BYTES:
-          break;
-        case DATE:
-          accessor.setProperty(property, s.getDate(name));
-          break;
-        case FLOAT64:
-          accessor.setProperty(property, s.getDouble(name));
-          break;
-        case INT64:
-          accessor.setProperty(property, s.getLong(name));
-          break;
-        case STRING:
-          accessor.setProperty(property, s.getString(name));
-          break;
-        case TIMESTAMP:
-          accessor.setProperty(property, s.getTimestamp(name));
-          break;
-        case STRUCT:
-          break;
+    }
+    if (columns.isEmpty()) {
+      throw new SpannerDataException(String.format("Projection %s has no properties of %s",
+          projectionType.getName(), persistentEntity.getType().getName()));
+    }
+    return Collections.unmodifiableList(columns);
+  }
+
+  private static final class RowMapperKey {
+    private final Class<?> entityClass;
+    private final Class<?> targetType;
+    private final Type rowType;
+
+    RowMapperKey(Class<?> entityClass, Class<?> targetType, Type rowType) {
+      this.entityClass = entityClass;
+      this.targetType = targetType;
+      this.rowType = rowType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof RowMapperKey)) {
+        return false;
       }
+      RowMapperKey that = (RowMapperKey) o;
+      return entityClass.equals(that.entityClass) && targetType.equals(that.targetType)
+          && ObjectUtils.nullSafeEquals(rowType, that.rowType);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * entityClass.hashCode() + targetType.hashCode()) + ObjectUtils.nullSafeHashCode(rowType);
     }
   }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.mapping;
+
+import com.google.cloud.spanner.StructReader;
+import com.google.cloud.spanner.Type;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Maps rows read for a persistent entity directly onto a DTO projection, without creating the entity. Columns are
+ * matched to the DTO by the name of the entity property they belong to, and the DTO property is set through its setter
+ * or field. Like {@link SpannerStructRowMapper}, everything is resolved when the mapper is created.
+ */
+public class SpannerStructProjectionMapper<P> implements SpannerRowMapper<P> {
+
+  /**
+   * Sets the value of one property of the projection.
+   */
+  interface PropertyWriter {
+    void write(Object target, Object value);
+  }
+
+  private final Class<P> projectionType;
+  private final Constructor<P> constructor;
+  private final SpannerStructRowMapper.ColumnReader[] readers;
+  private final PropertyWriter[] writers;
+  private final boolean[] primitives;
+
+  SpannerStructProjectionMapper(BasicSpannerPersistentEntity<?> persistentEntity, Class<P> projectionType,
+                                Type rowType, SpannerCustomConversions customConversions) {
+    this.projectionType = projectionType;
+    this.constructor = ClassUtils.getConstructorIfAvailable(projectionType);
+
+    List<Type.StructField> fields = rowType.getStructFields();
+    this.readers = new SpannerStructRowMapper.ColumnReader[fields.size()];
+    this.writers = new PropertyWriter[fields.size()];
+    this.primitives = new boolean[fields.size()];
+
+    for (int i = 0; i < fields.size(); i++) {
+      Type.StructField field = fields.get(i);
+      SpannerPersistentProperty property = persistentEntity.getPersistentPropertyByColumnName(field.getName());
+      if (property == null) {
+        continue;
+      }
+      Class<?> targetType = propertyType(projectionType, property.getName());
+      if (targetType == null || !ClassUtils.isAssignable(targetType, property.getType())) {
+        continue;
+      }
+      SpannerStructRowMapper.ColumnReader reader = SpannerStructRowMapper.columnReader(field.getType(), property,
+          customConversions);
+      if (reader == null) {
+        continue;
+      }
+      this.readers[i] = reader;
+      this.writers[i] = propertyWriter(projectionType, property.getName());
+      this.primitives[i] = targetType.isPrimitive();
+    }
+  }
+
+  @Override
+  public P map(StructReader row) {
+    P projection = constructor != null ? BeanUtils.instantiateClass(constructor) : BeanUtils.instantiate(projectionType);
+    for (int i = 0; i < writers.length; i++) {
+      PropertyWriter writer = writers[i];
+      if (writer == null) {
+        continue;
+      }
+      if (row.isNull(i)) {
+        if (!primitives[i]) {
+          writer.write(projection, null);
+        }
+        continue;
+      }
+      writer.write(projection, readers[i].read(row, i));
+    }
+    return projection;
+  }
+
+  /**
+   * Returns the type of the writable property of the given name, or {@literal null} if the projection has none.
+   */
+  static Class<?> propertyType(Class<?> projectionType, String name) {
+    PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(projectionType, name);
+    if (descriptor != null && descriptor.getWriteMethod() != null) {
+      return descriptor.getPropertyType();
+    }
+    Field field = ReflectionUtils.findField(projectionType, name);
+    return field != null ? field.getType() : null;
+  }
+
+  private static PropertyWriter propertyWriter(Class<?> projectionType, String name) {
+    PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(projectionType, name);
+    if (descriptor != null && descriptor.getWriteMethod() != null) {
+      final Method setter = descriptor.getWriteMethod();
+      ReflectionUtils.makeAccessible(setter);
+      return (target, value) -> ReflectionUtils.invokeMethod(setter, target, value);
+    }
+    final Field field = ReflectionUtils.findField(projectionType, name);
+    ReflectionUtils.makeAccessible(field);
+    return (target, value) -> ReflectionUtils.setField(field, target, value);
+  }
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.spanner.core.mapping;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.StructReader;
+import com.google.cloud.spanner.Type;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.CollectionFactory;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Maps rows of one result {@link Type} onto instances of a persistent entity. The target property and value reader of
+ * every column are resolved when the mapper is created, so mapping a row is an index based loop without any name
+ * lookups.
+ */
+public class SpannerStructRowMapper<T> implements SpannerRowMapper<T> {
+
+  /**
+   * Reads the non-null value of a column.
+   */
+  interface ColumnReader {
+    Object read(StructReader row, int index);
+  }
+
+  private final BasicSpannerPersistentEntity<T> persistentEntity;
+  private final Constructor<T> constructor;
+  private final SpannerPersistentProperty[] properties;
+  private final ColumnReader[] readers;
+  private final boolean[] primitives;
+
+  SpannerStructRowMapper(BasicSpannerPersistentEntity<T> persistentEntity, Type rowType,
+                         SpannerStructObjectMapper objectMapper) {
+    this.persistentEntity = persistentEntity;
+    this.constructor = ClassUtils.getConstructorIfAvailable(persistentEntity.getType());
+
+    List<Type.StructField> fields = rowType.getStructFields();
+    this.properties = new SpannerPersistentProperty[fields.size()];
+    this.readers = new ColumnReader[fields.size()];
+    this.primitives = new boolean[fields.size()];
+
+    for (int i = 0; i < fields.size(); i++) {
+      Type.StructField field = fields.get(i);
+      SpannerPersistentProperty property = persistentEntity.getPersistentPropertyByColumnName(field.getName());
+      if (property == null) {
+        continue;
+      }
+      Type type = field.getType();
+      ColumnReader reader = type.getCode() == Type.Code.ARRAY && type.getArrayElementType().getCode() == Type.Code.STRUCT
+          ? structReader(type.getArrayElementType(), property, objectMapper)
+          : columnReader(type, property, objectMapper.getCustomConversions());
+      if (reader == null) {
+        continue;
+      }
+      this.properties[i] = property;
+      this.readers[i] = reader;
+      this.primitives[i] = property.getType().isPrimitive();
+    }
+  }
+
+  public BasicSpannerPersistentEntity<T> getPersistentEntity() {
+    return persistentEntity;
+  }
+
+  public T newInstance() {
+    return constructor != null ? BeanUtils.instantiateClass(constructor) : BeanUtils.instantiate(persistentEntity.getType());
+  }
+
+  @Override
+  public T map(StructReader row) {
+    T object = newInstance();
+    map(row, object);
+    return object;
+  }
+
+  public void map(StructReader row, Object target) {
+    PersistentPropertyAccessor accessor = persistentEntity.getPropertyAccessor(target);
+    for (int i = 0; i < properties.length; i++) {
+      SpannerPersistentProperty property = properties[i];
+      if (property == null) {
+        continue;
+      }
+      if (row.isNull(i)) {
+        // primitives keep their default value
+        if (!primitives[i]) {
+          accessor.setProperty(property, null);
+        }
+        continue;
+      }
+      accessor.setProperty(property, readers[i].read(row, i));
+    }
+  }
+
+  /**
+   * Returns a reader mapping an {@code ARRAY<STRUCT>} column onto a collection of embedded objects or interleaved
+   * children, or onto a single embedded object if the property is not a collection.
+   */
+  private static ColumnReader structReader(Type elementType, final SpannerPersistentProperty property,
+                                           SpannerStructObjectMapper objectMapper) {
+    final SpannerStructRowMapper<?> elementMapper = objectMapper.getRowMapper(property.getActualType(), elementType);
+    final Class<?> type = property.getType();
+    if (!property.isCollectionLike()) {
+      return (row, index) -> {
+        List<Struct> structs = row.getStructList(index);
+        return structs.isEmpty() ? null : elementMapper.map(structs.get(0));
+      };
+    }
+    if (type.isArray()) {
+      return (row, index) -> {
+        List<Struct> structs = row.getStructList(index);
+        Object[] elements = (Object[]) Array.newInstance(type.getComponentType(), structs.size());
+        for (int i = 0; i < elements.length; i++) {
+          elements[i] = elementMapper.map(structs.get(i));
+        }
+        return elements;
+      };
+    }
+    return (row, index) -> {
+      List<Struct> structs = row.getStructList(index);
+      Collection<Object> elements = CollectionFactory.createCollection(type, structs.size());
+      for (Struct struct : structs) {
+        elements.add(elementMapper.map(struct));
+      }
+      return elements;
+    };
+  }
+
+  /**
+   * Returns the reader of a column for the given property, converting the values if the property type, or its element
+   * type for arrays, is not one Spanner supports directly.
+   */
+  static ColumnReader columnReader(Type type, SpannerPersistentProperty property,
+                                   SpannerCustomConversions customConversions) {
+    if (type.getCode() != Type.Code.ARRAY) {
+      Class<?> source = spannerType(type.getCode());
+      Class<?> target = property.getType();
+      ColumnReader reader = nativeReader(type, property);
+      if (reader == null || isNative(target, source)) {
+        return reader;
+      }
+      final Function<Object, Object> conversion = customConversions.getReadConversion(source, target);
+      if (conversion == null) {
+        return null;
+      }
+      return (row, index) -> conversion.apply(reader.read(row, index));
+    }
+    Type.Code elementCode = type.getArrayElementType().getCode();
+    if (!property.isCollectionLike() || isNative(property.getActualType(), spannerType(elementCode))) {
+      return nativeReader(type, property);
+    }
+    final ColumnReader listReader = listReader(elementCode);
+    final Function<Object, Object> conversion = listReader == null
+        ? null
+        : customConversions.getReadConversion(spannerType(elementCode), property.getActualType());
+    if (conversion == null) {
+      return null;
+    }
+    return collectionReader(property, (row, index) -> {
+      List<?> values = (List<?>) listReader.read(row, index);
+      List<Object> converted = new ArrayList<>(values.size());
+      for (Object value : values) {
+        converted.add(value == null ? null : conversion.apply(value));
+      }
+      return converted;
+    });
+  }
+
+  private static boolean isNative(Class<?> target, Class<?> source) {
+    return source == null || SpannerValueBinding.forType(target) != null || ClassUtils.isAssignable(target, source);
+  }
+
+  /**
+   * Returns the Java type the values of the given column type are read as.
+   */
+  private static Class<?> spannerType(Type.Code code) {
+    switch (code) {
+      case BOOL:
+        return Boolean.class;
+      case BYTES:
+        return ByteArray.class;
+      case DATE:
+        return Date.class;
+      case FLOAT64:
+        return Double.class;
+      case INT64:
+        return Long.class;
+      case STRING:
+        return String.class;
+      case TIMESTAMP:
+        return Timestamp.class;
+      default:
+        return null;
+    }
+  }
+
+  private static ColumnReader listReader(Type.Code elementCode) {
+    switch (elementCode) {
+      case BOOL:
+        return StructReader::getBooleanList;
+      case BYTES:
+        return StructReader::getBytesList;
+      case DATE:
+        return StructReader::getDateList;
+      case FLOAT64:
+        return StructReader::getDoubleList;
+      case INT64:
+        return StructReader::getLongList;
+      case STRING:
+        return StructReader::getStringList;
+      case TIMESTAMP:
+        return StructReader::getTimestampList;
+      default:
+        return null;
+    }
+  }
+
+  private static ColumnReader nativeReader(Type type, SpannerPersistentProperty property) {
+    Class<?> target = property.getType();
+    switch (type.getCode()) {
+      case ARRAY:
+        return arrayReader(type.getArrayElementType(), property);
+      case BOOL:
+        return StructReader::getBoolean;
+      case BYTES:
+        if (target == byte[].class) {
+          return (row, index) -> row.getBytes(index).toByteArray();
+        }
+        return StructReader::getBytes;
+      case DATE:
+        return StructReader::getDate;
+      case FLOAT64:
+        if (target == float.class || target == Float.class) {
+          return (row, index) -> toFloat(row.getDouble(index), property);
+        }
+        return StructReader::getDouble;
+      case INT64:
+        if (target == int.class || target == Integer.class) {
+          return (row, index) -> toInt(row.getLong(index), property);
+        }
+        return StructReader::getLong;
+      case STRING:
+        return StructReader::getString;
+      case TIMESTAMP:
+        return StructReader::getTimestamp;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Returns a reader for an {@code ARRAY} column. Primitive array properties are filled directly from the primitive
+   * getters, so the elements are never boxed; {@code int[]} and {@code float[]} are narrowed like their scalar
+   * counterparts, see {@link #toInt(long, SpannerPersistentProperty)} and
+   * {@link #toFloat(double, SpannerPersistentProperty)}.
+   */
+  private static ColumnReader arrayReader(Type elementType, SpannerPersistentProperty property) {
+    Class<?> target = property.getType();
+    switch (elementType.getCode()) {
+      case BOOL:
+        if (target == boolean[].class) {
+          return StructReader::getBooleanArray;
+        }
+        return collectionReader(property, StructReader::getBooleanList);
+      case INT64:
+        if (target == long[].class) {
+          return StructReader::getLongArray;
+        }
+        if (target == int[].class) {
+          return (row, index) -> {
+            long[] values = row.getLongArray(index);
+            int[] narrowed = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+              narrowed[i] = toInt(values[i], property);
+            }
+            return narrowed;
+          };
+        }
+        return collectionReader(property, StructReader::getLongList);
+      case FLOAT64:
+        if (target == double[].class) {
+          return StructReader::getDoubleArray;
+        }
+        if (target == float[].class) {
+          return (row, index) -> {
+            double[] values = row.getDoubleArray(index);
+            float[] narrowed = new float[values.length];
+            for (int i = 0; i < values.length; i++) {
+              narrowed[i] = toFloat(values[i], property);
+            }
+            return narrowed;
+          };
+        }
+        return collectionReader(property, StructReader::getDoubleList);
+      case STRING:
+        return collectionReader(property, StructReader::getStringList);
+      case BYTES:
+        return collectionReader(property, StructReader::getBytesList);
+      case DATE:
+        return collectionReader(property, StructReader::getDateList);
+      case TIMESTAMP:
+        return collectionReader(property, StructReader::getTimestampList);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Narrows an {@code INT64} value read into an {@code int} property, failing instead of wrapping around if it does
+   * not fit.
+   */
+  private static int toInt(long value, SpannerPersistentProperty property) {
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new SpannerDataException(String.format("Value %d of column %s does not fit into int property %s", value,
+          property.getColumnName(), property.getName()));
+    }
+    return (int) value;
+  }
+
+  /**
+   * Narrows a {@code FLOAT64} value read into a {@code float} property. The value is rounded to the nearest float, so
+   * digits beyond float precision are lost; values out of the float range fail instead of becoming infinite.
+   */
+  private static float toFloat(double value, SpannerPersistentProperty property) {
+    float narrowed = (float) value;
+    if (Float.isInfinite(narrowed) && !Double.isInfinite(value)) {
+      throw new SpannerDataException(String.format("Value %s of column %s does not fit into float property %s", value,
+          property.getColumnName(), property.getName()));
+    }
+    return narrowed;
+  }
+
+  /**
+   * Adapts a reader returning a {@link List} to the declared type of the property: an object array, a {@link List} or
+   * another {@link Collection}. Primitive arrays not read by {@link #arrayReader(Type, SpannerPersistentProperty)}
+   * do not match the element type of the column and fail the mapping.
+   */
+  private static ColumnReader collectionReader(SpannerPersistentProperty property, final ColumnReader listReader) {
+    final Class<?> type = property.getType();
+    if (type.isArray()) {
+      if (type.getComponentType().isPrimitive()) {
+        throw new SpannerDataException(String.format("Cannot read column %s into property %s of type %s",
+            property.getColumnName(), property.getName(), type.getSimpleName()));
+      }
+      return (row, index) -> {
+        List<?> list = (List<?>) listReader.read(row, index);
+        return list.toArray((Object[]) Array.newInstance(type.getComponentType(), list.size()));
+      };
+    }
+    if (type.isAssignableFrom(List.class)) {
+      return listReader;
+    }
+    if (Collection.class.isAssignableFrom(type)) {
+      return (row, index) -> {
+        List<?> list = (List<?>) listReader.read(row, index);
+        Collection<Object> collection = CollectionFactory.createCollection(type, list.size());
+        collection.addAll(list);
+        return collection;
+      };
+    }
+    return null;
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.mapping;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.ValueBinder;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Typed {@link ValueBinder} setters for the Java types that map directly onto Spanner column types. A binding is
+ * resolved once per property so that values can be bound without any type checks.
+ * <p>
+ * {@code ARRAY} values may be given as an {@link Iterable}, an object array or a primitive array; {@code long[]},
+ * {@code double[]} and {@code boolean[]} are bound without boxing their elements.
+ */
+@SuppressWarnings("unchecked")
+public enum SpannerValueBinding {
+  STRING(String.class) {
+    @Override
+    public <R> R bind(ValueBinder<R> binder, Object value) {
+      return binder.to((String) value);
+    }
+
+    @Override
+    public <R> R bindArray(ValueBinder<R> binder, Object values) {
+      return binder.toStringArray((Iterable<String>) asIterable(values));
+    }
+  },
+  BOOL(Boolean.class) {
+    @Override
+    public <R> R bind(ValueBinder<R> binder, Object value) {
+      return binder.to((Boolean) value);
+    }
+
+    @Override
+    public <R> R bindArray(ValueBinder<R> binder, Object values) {
+      if (values instanceof boolean[]) {
+        return binder.toBoolArray((boolean[]) values);
+      }
+      return binder.toBoolArray((Iterable<Boolean>) asIterable(values));
+    }
+  },
+  BYTES(ByteArray.class, byte[].class) {
+    @Override
+    public <R> R bind(ValueBinder<R> binder, Object value) {
+      return binder.to(toByteArray(value));
+    }
+
+    @Override
+    public <R> R bindArray(ValueBinder<R> binder, Object values) {
+      return binder.toBytesArray(elements(values, SpannerValueBinding::toByteArray));
+    }
+  },
+  DATE(Date.class) {
+    @Override
+    public <R> R bind(ValueBinder<R> binder, Object value) {
+      return binder.to((Date) value);
+    }
+
+    @Override
+    public <R> R bindArray(ValueBinder<R> binder, Object values) {
+      return binder.toDateArray((Iterable<Date>) asIterable(values));
+    }
+  },
+  FLOAT64(Double.class, Float.class) {
+    @Override
+    public <R> R bind(ValueBinder<R> binder, Object value) {
+      return binder.to(value == null ? null : ((Number) value).doubleValue());
+    }
+
+    @Override
+    public <R> R bindArray(ValueBinder<R> binder, Object values) {
+      if (values instanceof double[]) {
+        return binder.toFloat64Array((double[]) values);
+      }
+      return binder.toFloat64Array(elements(values, value -> ((Number) value).doubleValue()));
+    }
+  },
+  INT64(Long.class, Integer.class) {
+    @Override
+    public <R> R bind(ValueBinder<R> binder, Object value) {
+      return binder.to(value == null ? null : ((Number) value).longValue());
+    }
+
+    @Override
+    public <R> R bindArray(ValueBinder<R> binder, Object values) {
+      if (values instanceof long[]) {
+        return binder.toInt64Array((long[]) values);
+      }
+      return binder.toInt64Array(elements(values, value -> ((Number) value).longValue()));
+    }
+  },
+  TIMESTAMP(Timestamp.class) {
+    @Override
+    public <R> R bind(ValueBinder<R> binder, Object value) {
+      return binder.to((Timestamp) value);
+    }
+
+    @Override
+    public <R> R bindArray(ValueBinder<R> binder, Object values) {
+      return binder.toTimestampArray((Iterable<Timestamp>) asIterable(values));
+    }
+  };
+
+  private final Class<?>[] javaTypes;
+
+  SpannerValueBinding(Class<?>... javaTypes) {
+    this.javaTypes = javaTypes;
+  }
+
+  public Class<?> getJavaType() {
+    return javaTypes[0];
+  }
+
+  public abstract <R> R bind(ValueBinder<R> binder, Object value);
+
+  /**
+   * Binds the values as an {@code ARRAY} of this type. A single value is bound as an array of one element.
+   */
+  public abstract <R> R bindArray(ValueBinder<R> binder, Object values);
+
+  /**
+   * Returns the binding for values of the given type, or {@literal null} if the type has no direct Spanner mapping.
+   * Primitive types resolve to the binding of their wrapper.
+   */
+  public static SpannerValueBinding forType(Class<?> type) {
+    Class<?> resolved = ClassUtils.resolvePrimitiveIfNecessary(type);
+    for (SpannerValueBinding binding : values()) {
+      for (Class<?> javaType : binding.javaTypes) {
+        if (javaType.isAssignableFrom(resolved)) {
+          return binding;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static ByteArray toByteArray(Object value) {
+    return value instanceof byte[] ? ByteArray.copyFrom((byte[]) value) : (ByteArray) value;
+  }
+
+  private static Iterable<?> asIterable(Object values) {
+    if (values == null || values instanceof Iterable) {
+      return (Iterable<?>) values;
+    }
+    if (values instanceof Object[]) {
+      return Arrays.asList((Object[]) values);
+    }
+    if (values.getClass().isArray()) {
+      return CollectionUtils.arrayToList(values);
+    }
+    return Collections.singletonList(values);
+  }
+
+  private static <E> List<E> elements(Object values, Function<Object, E> converter) {
+    Iterable<?> iterable = asIterable(values);
+    if (iterable == null) {
+      return null;
+    }
+    List<E> elements = new ArrayList<>();
+    for (Object value : iterable) {
+      elements.add(value == null ? null : converter.apply(value));
+    }
+    return elements;
+  }
+}
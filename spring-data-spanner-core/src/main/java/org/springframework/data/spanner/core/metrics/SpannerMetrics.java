@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.metrics;
+
+/**
+ * Receives the measurements of the operations of a {@link org.springframework.data.spanner.core.SpannerTemplate},
+ * e.g. to publish them to a metrics registry. Durations are in nanoseconds. Operations spanning several tables, such
+ * as transactions, are recorded once for every table. Mapping time is the time spent mapping rows onto objects and is
+ * included in the duration of the read, so the difference of both is the time spent waiting for Spanner.
+ * <p>
+ * Nothing is measured while the template uses {@link #NOOP}.
+ */
+public interface SpannerMetrics {
+  SpannerMetrics NOOP = new SpannerMetrics() {
+  };
+
+  default void recordOperation(SpannerOperation operation, String tableName, long nanos, boolean success) {
+  }
+
+  default void recordRows(SpannerOperation operation, String tableName, int rows) {
+  }
+
+  default void recordMapping(SpannerOperation operation, String tableName, long nanos) {
+  }
+
+  /**
+   * Records the number of mutations applied by one commit.
+   */
+  default void recordMutations(SpannerOperation operation, int mutations) {
+  }
+}
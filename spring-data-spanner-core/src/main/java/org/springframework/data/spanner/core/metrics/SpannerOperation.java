@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.metrics;
+
+/**
+ * The operations of a {@link org.springframework.data.spanner.core.SpannerTemplate} recorded by {@link SpannerMetrics}.
+ */
+public enum SpannerOperation {
+  /**
+   * Read of a single row by its key.
+   */
+  FIND("find"),
+  /**
+   * Read of a key set.
+   */
+  READ("read"),
+  /**
+   * Execution of a SQL statement.
+   */
+  QUERY("query"),
+  /**
+   * Commit of mutations outside of a transaction.
+   */
+  WRITE("write"),
+  /**
+   * Read-write transaction, including all of its attempts.
+   */
+  TRANSACTION("transaction");
+
+  private final String tagValue;
+
+  SpannerOperation(String tagValue) {
+    this.tagValue = tagValue;
+  }
+
+  /**
+   * Returns the name of the operation for metric tags.
+   */
+  public String getTagValue() {
+    return tagValue;
+  }
+}
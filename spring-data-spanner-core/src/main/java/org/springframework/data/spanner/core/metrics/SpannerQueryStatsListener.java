@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.metrics;
+
+import com.google.cloud.spanner.Statement;
+import com.google.spanner.v1.ResultSetStats;
+
+/**
+ * Receives the query plan and execution statistics of the statements a
+ * {@link org.springframework.data.spanner.core.SpannerTemplate} samples for profiling, e.g. to detect full table scans
+ * or missing secondary indexes.
+ */
+public interface SpannerQueryStatsListener {
+
+  /**
+   * Called once all rows of a profiled statement have been read.
+   *
+   * @param stats the {@link ResultSetStats#getQueryPlan() query plan} and {@link ResultSetStats#getQueryStats()
+   * execution statistics}, such as rows scanned and CPU time.
+   */
+  void onQueryStats(Statement statement, Class<?> entityClass, ResultSetStats stats);
+}
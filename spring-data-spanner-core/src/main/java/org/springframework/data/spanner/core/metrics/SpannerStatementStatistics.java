@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates the executions of SQL statements by their normalized text, with literals replaced by {@code ?}, and logs
+ * statements slower than a threshold. Statements beyond {@link #setMaxStatements maxStatements} distinct ones are only
+ * checked against the threshold, so unparameterized SQL cannot grow the registry without bound.
+ */
+@ManagedResource(description = "Execution statistics of Spanner SQL statements")
+public class SpannerStatementStatistics {
+  public static final int DEFAULT_MAX_STATEMENTS = 1000;
+  public static final long DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS = 1000;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpannerStatementStatistics.class);
+
+  /**
+   * String literals and numbers. Quoted identifiers are matched as well, so that their contents are kept.
+   */
+  private static final Pattern LITERALS = Pattern.compile(
+      "`(?:[^`\\\\]|\\\\.)*`|'(?:[^'\\\\]|\\\\.)*'|\"(?:[^\"\\\\]|\\\\.)*\"|\\b\\d+(?:\\.\\d+)?(?:[eE][+-]?\\d+)?\\b");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final ConcurrentMap<String, StatementStatistics> statements = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, String> normalizedSql = new ConcurrentHashMap<>();
+  private int maxStatements = DEFAULT_MAX_STATEMENTS;
+  private long slowQueryThresholdMillis = DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS;
+
+  @ManagedAttribute
+  public int getMaxStatements() {
+    return maxStatements;
+  }
+
+  public void setMaxStatements(int maxStatements) {
+    this.maxStatements = maxStatements;
+  }
+
+  @ManagedAttribute
+  public long getSlowQueryThresholdMillis() {
+    return slowQueryThresholdMillis;
+  }
+
+  /**
+   * Sets the duration above which statements are logged, or a negative value to disable the log.
+   */
+  @ManagedAttribute
+  public void setSlowQueryThresholdMillis(long slowQueryThresholdMillis) {
+    this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+  }
+
+  public void record(String sql, long nanos, int rows, boolean success) {
+    if (slowQueryThresholdMillis >= 0 && TimeUnit.NANOSECONDS.toMillis(nanos) > slowQueryThresholdMillis) {
+      LOGGER.warn("Slow Spanner statement took {} ms and returned {} rows: {}",
+          TimeUnit.NANOSECONDS.toMillis(nanos), rows, sql);
+    }
+    String normalized = normalizedSql.get(sql);
+    if (normalized == null) {
+      normalized = normalize(sql);
+      if (normalizedSql.size() < maxStatements) {
+        normalizedSql.put(sql, normalized);
+      }
+    }
+    StatementStatistics statistics = statements.get(normalized);
+    if (statistics == null) {
+      if (statements.size() >= maxStatements) {
+        return;
+      }
+      StatementStatistics created = new StatementStatistics(normalized);
+      statistics = statements.putIfAbsent(normalized, created);
+      if (statistics == null) {
+        statistics = created;
+      }
+    }
+    statistics.record(nanos, rows, success);
+  }
+
+  /**
+   * Replaces string and numeric literals with {@code ?} and collapses whitespace, so that statements differing only
+   * in inlined values are aggregated together.
+   */
+  public static String normalize(String sql) {
+    Matcher matcher = LITERALS.matcher(sql);
+    StringBuffer normalized = new StringBuffer(sql.length());
+    while (matcher.find()) {
+      String literal = matcher.group();
+      matcher.appendReplacement(normalized, literal.startsWith("`") ? Matcher.quoteReplacement(literal) : "?");
+    }
+    matcher.appendTail(normalized);
+    return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+  }
+
+  public Map<String, StatementStatistics> getStatements() {
+    return Collections.unmodifiableMap(statements);
+  }
+
+  /**
+   * Returns the statements with the highest total latency first.
+   */
+  public List<StatementStatistics> getTopStatements(int limit) {
+    List<StatementStatistics> top = new ArrayList<>(statements.values());
+    top.sort((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()));
+    return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+  }
+
+  @ManagedOperation(description = "Returns the statements with the highest total latency")
+  public List<String> describeTopStatements(int limit) {
+    List<String> descriptions = new ArrayList<>();
+    for (StatementStatistics statistics : getTopStatements(limit)) {
+      descriptions.add(statistics.toString());
+    }
+    return descriptions;
+  }
+
+  @ManagedOperation
+  public void reset() {
+    statements.clear();
+    normalizedSql.clear();
+  }
+
+  public static class StatementStatistics {
+    private final String sql;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rows = new LongAdder();
+
+    StatementStatistics(String sql) {
+      this.sql = sql;
+    }
+
+    void record(long nanos, int rows, boolean success) {
+      count.increment();
+      if (!success) {
+        errors.increment();
+      }
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+      this.rows.add(rows);
+    }
+
+    public String getSql() {
+      return sql;
+    }
+
+    public long getCount() {
+      return count.sum();
+    }
+
+    public long getErrors() {
+      return errors.sum();
+    }
+
+    public long getTotalNanos() {
+      return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+      return maxNanos.get();
+    }
+
+    public long getRows() {
+      return rows.sum();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("count=%d, errors=%d, totalMillis=%d, maxMillis=%d, rows=%d: %s", getCount(), getErrors(),
+          TimeUnit.NANOSECONDS.toMillis(getTotalNanos()), TimeUnit.NANOSECONDS.toMillis(getMaxNanos()), getRows(), sql);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository;
+
+import com.google.cloud.spanner.Key;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.repository.support.PageableExecutionUtils.TotalSupplier;
+
+import java.util.List;
+
+/**
+ * {@link Page} read with a {@link KeysetPageRequest}. The total is only counted when it is first requested and cannot
+ * be derived from the page itself, so iterating with {@link #nextKeysetPageRequest()} never runs a count query. A
+ * deserialized page can no longer count, so its total is only known if it was requested before.
+ * <p>
+ * As a {@link Page}, its {@link #nextPageable()} and {@link #previousPageable()} are the equivalent offset requests,
+ * which read the same rows from {@code findAll(Pageable)} but skip the rows before them.
+ */
+public class KeysetPage<T> extends SliceImpl<T> implements Page<T> {
+  private static final long serialVersionUID = 1L;
+
+  private final KeysetPageRequest request;
+  private final Key lastKey;
+  private final transient TotalSupplier totalSupplier;
+  private volatile Long total;
+
+  /**
+   * @param lastKey the primary key of the last row of this page.
+   */
+  public KeysetPage(List<T> content, KeysetPageRequest request, boolean hasNext, Key lastKey,
+                    TotalSupplier totalSupplier) {
+    super(content, new PageRequest(request.getPageNumber(), request.getPageSize()), hasNext);
+    this.request = request;
+    this.lastKey = lastKey;
+    this.totalSupplier = totalSupplier;
+  }
+
+  public Key getLastKey() {
+    return lastKey;
+  }
+
+  public KeysetPageRequest getKeysetPageRequest() {
+    return request;
+  }
+
+  /**
+   * Returns the request for the page after this one, which starts after {@link #getLastKey()}, or {@literal null} if
+   * this is the last page.
+   */
+  public KeysetPageRequest nextKeysetPageRequest() {
+    return hasNext() ? new KeysetPageRequest(getNumber() + 1, getSize(), lastKey) : null;
+  }
+
+  @Override
+  public long getTotalElements() {
+    Long total = this.total;
+    if (total == null) {
+      // the last page tells the total as long as the pages were read in sequence
+      if (hasNext() && totalSupplier == null) {
+        throw new IllegalStateException("The total of a deserialized keyset page cannot be counted");
+      }
+      total = hasNext() ? totalSupplier.get() : (long) getNumber() * getSize() + getNumberOfElements();
+      this.total = total;
+    }
+    return total;
+  }
+
+  @Override
+  public int getTotalPages() {
+    return getSize() == 0 ? 1 : (int) Math.ceil((double) getTotalElements() / (double) getSize());
+  }
+
+  @Override
+  public <S> Page<S> map(Converter<? super T, ? extends S> converter) {
+    return new KeysetPage<S>(getConvertedContent(converter), request, hasNext(), lastKey,
+        totalSupplier);
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository;
+
+import com.google.cloud.spanner.Key;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+import java.io.Serializable;
+
+/**
+ * Request for a keyset (seek) page: instead of skipping rows like a {@link org.springframework.data.domain.Pageable},
+ * the page is read from the primary key range after the last row of the previous page, so every page costs the same
+ * no matter how deep it is. Keyset pages are always ordered by primary key.
+ * <p>
+ * Start with {@code new KeysetPageRequest(size)} and continue with {@link KeysetPage#nextKeysetPageRequest()}. A
+ * request does not know where the page after it starts, so it is not a {@code Pageable} and has no {@code next()}.
+ */
+public class KeysetPageRequest implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final int page;
+  private final int size;
+  private final Key lastKey;
+
+  public KeysetPageRequest(int size) {
+    this(0, size, null);
+  }
+
+  /**
+   * @param page the number of the page, only used to number the pages and to tell the total.
+   * @param lastKey the primary key of the last row of the previous page, or {@literal null} for the first page.
+   */
+  public KeysetPageRequest(int page, int size, Key lastKey) {
+    Assert.isTrue(page >= 0, "Page index must not be less than zero!");
+    Assert.isTrue(size >= 1, "Page size must not be less than one!");
+    this.page = page;
+    this.size = size;
+    this.lastKey = lastKey;
+  }
+
+  public int getPageNumber() {
+    return page;
+  }
+
+  public int getPageSize() {
+    return size;
+  }
+
+  public Key getLastKey() {
+    return lastKey;
+  }
+
+  public KeysetPageRequest first() {
+    return new KeysetPageRequest(size);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof KeysetPageRequest)) {
+      return false;
+    }
+    KeysetPageRequest that = (KeysetPageRequest) obj;
+    return page == that.page && size == that.size && ObjectUtils.nullSafeEquals(lastKey, that.lastKey);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * page + size) + ObjectUtils.nullSafeHashCode(lastKey);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Keyset page request [number: %d, size %d, last key: %s]", page, size, lastKey);
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository;
+
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.spanner.core.ReactiveSpannerOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+
+/**
+ * Reactive CRUD repository for Spanner entities. Mirrors {@link SpannerRepository} with {@link Mono} and {@link Flux}
+ * return types.
+ */
+@NoRepositoryBean
+public interface ReactiveSpannerRepository<T, ID extends Serializable> extends Repository<T, ID> {
+  ReactiveSpannerOperations getReactiveSpannerOperations();
+
+  <S extends T> Mono<S> save(S entity);
+
+  <S extends T> Flux<S> save(Iterable<S> entities);
+
+  Mono<T> findOne(ID id);
+
+  Mono<Boolean> exists(ID id);
+
+  Flux<T> findAll();
+
+  Flux<T> findAll(Iterable<ID> ids);
+
+  Mono<Long> count();
+
+  Mono<Void> delete(ID id);
+
+  Mono<Void> delete(T entity);
+
+  Mono<Void> delete(Iterable<? extends T> entities);
+
+  Mono<Void> deleteAll();
+}
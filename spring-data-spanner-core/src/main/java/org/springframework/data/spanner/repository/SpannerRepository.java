@@ -16,7 +16,7 @@
 
 package org.springframework.data.spanner.repository;
 
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.spanner.core.SpannerOperations;
 
 import java.io.Serializable;
@@ -24,6 +24,19 @@ import java.io.Serializable;
 /**
  * Created by rayt on 3/23/17.
  */
-public interface SpannerRepository<T, ID extends Serializable> extends CrudRepository<T, ID> {
+public interface SpannerRepository<T, ID extends Serializable> extends PagingAndSortingRepository<T, ID> {
   SpannerOperations getSpannerOperations();
+
+  /**
+   * Projection variants read only the columns needed by the projection type, see
+   * {@link SpannerOperations#find(Class, Class, com.google.cloud.spanner.KeySet, com.google.cloud.spanner.Options.ReadOption...)}.
+   */
+  <P> P findOne(ID id, Class<P> projectionType);
+  <P> Iterable<P> findAll(Class<P> projectionType);
+  <P> Iterable<P> findAll(Iterable<ID> ids, Class<P> projectionType);
+
+  /**
+   * Reads a page from the primary key range after the previous page, see {@link KeysetPageRequest}.
+   */
+  KeysetPage<T> findAll(KeysetPageRequest request);
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes repository query methods as stale reads, which the nearest replica can serve without a round trip to the
+ * leader. By default reads are bounded by the given maximum staleness; {@link #exact()} reads at exactly that
+ * staleness instead. Annotating the repository interface applies it to all of its query methods.
+ *
+ * @see com.google.cloud.spanner.TimestampBound
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StaleRead {
+  long value();
+
+  TimeUnit unit() default TimeUnit.SECONDS;
+
+  boolean exact() default false;
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.query;
+
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.TimestampBound;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.repository.query.ParametersParameterAccessor;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.repository.query.ResultProcessor;
+import org.springframework.data.repository.query.ReturnedType;
+import org.springframework.data.spanner.core.SpannerOperations;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.SpannerPersistentProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class for {@link RepositoryQuery} implementations that execute a SQL {@link Statement} and map the rows onto
+ * the repository's entity type.
+ */
+public abstract class AbstractSpannerQuery implements RepositoryQuery {
+  private final SpannerQueryMethod queryMethod;
+  private final SpannerOperations operations;
+  private final BasicSpannerPersistentEntity<?> persistentEntity;
+
+  protected AbstractSpannerQuery(SpannerQueryMethod queryMethod, SpannerOperations operations) {
+    this.queryMethod = queryMethod;
+    this.operations = operations;
+    this.persistentEntity = operations.getMappingContext().getPersistentEntity(queryMethod.getEntityType());
+  }
+
+  protected SpannerOperations getOperations() {
+    return operations;
+  }
+
+  protected BasicSpannerPersistentEntity<?> getPersistentEntity() {
+    return persistentEntity;
+  }
+
+  protected SpannerCustomConversions customConversions() {
+    return operations.getMappingContext().getCustomConversions();
+  }
+
+  @Override
+  public SpannerQueryMethod getQueryMethod() {
+    return queryMethod;
+  }
+
+  @Override
+  public Object execute(Object[] parameters) {
+    ParametersParameterAccessor accessor = new ParametersParameterAccessor(queryMethod.getParameters(), parameters);
+    ResultProcessor processor = queryMethod.getResultProcessor().withDynamicProjection(accessor);
+    Statement statement = createStatement(accessor, processor.getReturnedType());
+    Class<?> entityType = queryMethod.getEntityType();
+    TimestampBound bound = queryMethod.getTimestampBound();
+
+    if (isCountQuery()) {
+      return count(statement, bound);
+    }
+    if (isExistsQuery()) {
+      return count(statement, bound) > 0;
+    }
+
+    if (queryMethod.isStreamQuery()) {
+      return processor.processResult(bound != null
+          ? operations.stream(entityType, statement, bound)
+          : operations.stream(entityType, statement));
+    }
+    List<?> results = bound != null
+        ? operations.find(entityType, statement, bound)
+        : operations.find(entityType, statement);
+    if (queryMethod.isCollectionQuery()) {
+      return processor.processResult(results);
+    }
+    if (results.size() > 1) {
+      throw new IncorrectResultSizeDataAccessException(1, results.size());
+    }
+    return processor.processResult(results.isEmpty() ? null : results.get(0));
+  }
+
+  private long count(Statement statement, TimestampBound bound) {
+    return bound != null ? operations.count(statement, bound) : operations.count(statement);
+  }
+
+  /**
+   * Returns whether the statement selects a single {@code COUNT(*)} to be returned as the result.
+   */
+  protected boolean isCountQuery() {
+    return false;
+  }
+
+  /**
+   * Returns whether the statement selects a single {@code COUNT(*)}, returning whether it is greater than 0.
+   */
+  protected boolean isExistsQuery() {
+    return false;
+  }
+
+  /**
+   * Creates the {@link Statement} to execute for the given method arguments.
+   *
+   * @param returnedType the type returned by this invocation, possibly a dynamic projection.
+   */
+  protected abstract Statement createStatement(ParametersParameterAccessor accessor, ReturnedType returnedType);
+
+  /**
+   * Returns the columns needed to create the returned type. Closed projections only read the columns of their
+   * properties; entities and open projections read all columns.
+   */
+  protected List<String> columns(ReturnedType returnedType) {
+    if (!returnedType.isProjecting()) {
+      return persistentEntity.columns();
+    }
+    List<String> columns = new ArrayList<>();
+    for (String propertyName : returnedType.getInputProperties()) {
+      SpannerPersistentProperty property = persistentEntity.getPersistentProperty(propertyName);
+      if (property != null && !property.isInterleaved()) {
+        columns.add(property.getColumnName());
+      }
+    }
+    return columns.isEmpty() ? persistentEntity.columns() : columns;
+  }
+
+  /**
+   * Binds the method arguments to the parameters of a SQL string. Only the values differ between invocations, so
+   * Spanner can reuse the cached plan of the statement.
+   */
+  protected static Statement bind(String sql, List<SpannerParameterBinding> bindings,
+                                  ParametersParameterAccessor accessor) {
+    Statement.Builder builder = Statement.newBuilder(sql);
+    for (SpannerParameterBinding binding : bindings) {
+      Object value = accessor.getBindableValue(binding.getParameterIndex());
+      if (value == null && !binding.isNullable()) {
+        throw new IllegalArgumentException(String.format("Argument %d must not be null, a comparison with NULL "
+            + "matches no rows; use IsNull or IsNotNull to find rows whose column is NULL",
+            binding.getParameterIndex()));
+      }
+      binding.bind(builder, value);
+    }
+    return builder.build();
+  }
+}
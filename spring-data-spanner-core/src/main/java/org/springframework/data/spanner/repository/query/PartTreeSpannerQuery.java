@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.query;
+
+import com.google.cloud.spanner.Statement;
+import org.springframework.data.repository.query.ParametersParameterAccessor;
+import org.springframework.data.repository.query.ReturnedType;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.spanner.core.SpannerOperations;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link AbstractSpannerQuery} deriving its SQL from the name of the query method. The SQL and its parameter
+ * bindings are created once when the repository is initialized, and once more for every dynamic projection type.
+ */
+public class PartTreeSpannerQuery extends AbstractSpannerQuery {
+  private final PartTree tree;
+  private final List<SpannerParameterBinding> bindings;
+  private final ConcurrentMap<Class<?>, String> sqlByReturnedType = new ConcurrentHashMap<>();
+
+  public PartTreeSpannerQuery(SpannerQueryMethod queryMethod, SpannerOperations operations) {
+    super(queryMethod, operations);
+    this.tree = new PartTree(queryMethod.getName(), getPersistentEntity().getType());
+
+    if (tree.isDelete()) {
+      throw new UnsupportedOperationException(
+          String.format("Delete queries are not supported: %s", queryMethod));
+    }
+    if (queryMethod.isPageQuery() || queryMethod.isSliceQuery() || queryMethod.getParameters().potentiallySortsDynamically()) {
+      throw new UnsupportedOperationException(
+          String.format("Paging and dynamic sorting are not supported: %s", queryMethod));
+    }
+
+    ReturnedType returnedType = queryMethod.getResultProcessor().getReturnedType();
+    SpannerQueryCreator creator = new SpannerQueryCreator(tree, getPersistentEntity(), columns(returnedType), customConversions());
+    this.sqlByReturnedType.put(returnedType.getReturnedType(), creator.createQuery());
+    this.bindings = creator.getBindings();
+  }
+
+  @Override
+  protected boolean isCountQuery() {
+    return tree.isCountProjection();
+  }
+
+  @Override
+  protected boolean isExistsQuery() {
+    return tree.isExistsProjection();
+  }
+
+  @Override
+  protected Statement createStatement(ParametersParameterAccessor accessor, ReturnedType returnedType) {
+    return bind(getSql(returnedType), bindings, accessor);
+  }
+
+  private String getSql(ReturnedType returnedType) {
+    String sql = sqlByReturnedType.get(returnedType.getReturnedType());
+    if (sql == null) {
+      // the bindings only depend on the tree, so they are the same for every projection
+      sql = new SpannerQueryCreator(tree, getPersistentEntity(), columns(returnedType), customConversions()).createQuery();
+      sqlByReturnedType.putIfAbsent(returnedType.getReturnedType(), sql);
+    }
+    return sql;
+  }
+}
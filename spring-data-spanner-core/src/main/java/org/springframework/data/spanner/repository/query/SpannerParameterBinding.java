@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.query;
+
+import com.google.cloud.spanner.Statement;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
+import org.springframework.data.spanner.core.mapping.SpannerValueBinding;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Binds one method argument to a named parameter of a query.
+ */
+class SpannerParameterBinding {
+  private final String name;
+  private final int parameterIndex;
+  private final SpannerValueBinding valueBinding;
+  private final Function<Object, Object> conversion;
+  private final boolean array;
+  private boolean nullable = true;
+
+  SpannerParameterBinding(String name, int parameterIndex, SpannerValueBinding valueBinding,
+                          Function<Object, Object> conversion, boolean array) {
+    this.name = name;
+    this.parameterIndex = parameterIndex;
+    this.valueBinding = valueBinding;
+    this.conversion = conversion;
+    this.array = array;
+  }
+
+  /**
+   * Creates the binding of values of the given type, or of arrays of it, converting them through the custom
+   * conversions if Spanner does not support the type directly. Returns {@literal null} if the type cannot be bound.
+   */
+  static SpannerParameterBinding create(String name, int parameterIndex, Class<?> type, boolean array,
+                                        SpannerCustomConversions customConversions) {
+    Class<?> valueType = ClassUtils.resolvePrimitiveIfNecessary(type);
+    SpannerValueBinding binding = SpannerValueBinding.forType(valueType);
+    if (binding != null) {
+      return new SpannerParameterBinding(name, parameterIndex, binding, null, array);
+    }
+    Function<Object, Object> conversion = customConversions.getWriteConversion(valueType);
+    if (conversion == null) {
+      return null;
+    }
+    binding = SpannerValueBinding.forType(customConversions.getSpannerType(valueType));
+    return binding == null ? null : new SpannerParameterBinding(name, parameterIndex, binding, conversion, array);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the index of the argument among the bindable parameters of the query method.
+   */
+  public int getParameterIndex() {
+    return parameterIndex;
+  }
+
+  /**
+   * Returns whether the argument may be {@literal null}. Comparisons with {@code NULL} match no rows, so arguments
+   * compared for (in)equality must not be.
+   */
+  public boolean isNullable() {
+    return nullable;
+  }
+
+  void setNullable(boolean nullable) {
+    this.nullable = nullable;
+  }
+
+  public void bind(Statement.Builder builder, Object value) {
+    if (conversion != null && value != null) {
+      value = array ? convertElements(value) : conversion.apply(value);
+    }
+    if (array) {
+      valueBinding.bindArray(builder.bind(name), value);
+    } else {
+      valueBinding.bind(builder.bind(name), value);
+    }
+  }
+
+  private List<Object> convertElements(Object values) {
+    Collection<?> elements = values instanceof Collection ? (Collection<?>) values : Arrays.asList((Object[]) values);
+    List<Object> converted = new ArrayList<>(elements.size());
+    for (Object element : elements) {
+      converted.add(element == null ? null : conversion.apply(element));
+    }
+    return converted;
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.query;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.repository.query.parser.AbstractQueryCreator;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.SpannerDataException;
+import org.springframework.data.spanner.core.mapping.SpannerPersistentProperty;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Creates a parameterized SQL query from a {@link PartTree}. Every method argument becomes a named parameter
+ * ({@code @p0}, {@code @p1}, ...), whose {@link SpannerParameterBinding} is collected while the query is created.
+ */
+class SpannerQueryCreator extends AbstractQueryCreator<String, String> {
+  private final PartTree tree;
+  private final BasicSpannerPersistentEntity<?> persistentEntity;
+  private final List<String> columns;
+  private final SpannerCustomConversions customConversions;
+  private final List<SpannerParameterBinding> bindings = new ArrayList<>();
+
+  /**
+   * @param columns the columns to select.
+   */
+  SpannerQueryCreator(PartTree tree, BasicSpannerPersistentEntity<?> persistentEntity, List<String> columns,
+                      SpannerCustomConversions customConversions) {
+    super(tree);
+    this.tree = tree;
+    this.persistentEntity = persistentEntity;
+    this.columns = columns;
+    this.customConversions = customConversions;
+  }
+
+  public List<SpannerParameterBinding> getBindings() {
+    return bindings;
+  }
+
+  @Override
+  protected String create(Part part, Iterator<Object> iterator) {
+    return criterion(part);
+  }
+
+  @Override
+  protected String and(Part part, String base, Iterator<Object> iterator) {
+    return base + " AND " + criterion(part);
+  }
+
+  @Override
+  protected String or(String base, String criteria) {
+    return base + " OR " + criteria;
+  }
+
+  @Override
+  protected String complete(String criteria, Sort sort) {
+    if (tree.isExistsProjection()) {
+      // stops at the first matching row instead of counting all of them
+      return "SELECT COUNT(*) FROM (SELECT 1 FROM " + persistentEntity.tableName()
+          + (criteria != null ? " WHERE " + criteria : "") + " LIMIT 1)";
+    }
+    if (tree.isCountProjection() && !tree.isDistinct() && !tree.isLimiting()) {
+      return "SELECT COUNT(*) FROM " + persistentEntity.tableName() + (criteria != null ? " WHERE " + criteria : "");
+    }
+    StringBuilder sql = new StringBuilder("SELECT ");
+    if (tree.isDistinct()) {
+      sql.append("DISTINCT ");
+    }
+    sql.append(StringUtils.collectionToDelimitedString(columns, ", "))
+        .append(" FROM ").append(persistentEntity.tableName());
+    if (criteria != null) {
+      sql.append(" WHERE ").append(criteria);
+    }
+    if (sort != null && !tree.isCountProjection()) {
+      String delimiter = " ORDER BY ";
+      for (Sort.Order order : sort) {
+        String column = property(order.getProperty()).getColumnName();
+        sql.append(delimiter)
+            .append(order.isIgnoreCase() ? "LOWER(" + column + ")" : column)
+            .append(order.isAscending() ? " ASC" : " DESC");
+        delimiter = ", ";
+      }
+    }
+    if (tree.isLimiting()) {
+      sql.append(" LIMIT ").append(tree.getMaxResults());
+    }
+    return tree.isCountProjection() ? "SELECT COUNT(*) FROM (" + sql + ")" : sql.toString();
+  }
+
+  private String criterion(Part part) {
+    SpannerPersistentProperty property = property(part.getProperty());
+    String column = property.getColumnName();
+    Class<?> type = property.getType();
+
+    switch (part.getType()) {
+      case SIMPLE_PROPERTY:
+        return nonNull(comparison(part, property, " = "));
+      case NEGATING_SIMPLE_PROPERTY:
+        return nonNull(comparison(part, property, " != "));
+      case GREATER_THAN:
+      case AFTER:
+        return column + " > " + parameter(property, type, false);
+      case GREATER_THAN_EQUAL:
+        return column + " >= " + parameter(property, type, false);
+      case LESS_THAN:
+      case BEFORE:
+        return column + " < " + parameter(property, type, false);
+      case LESS_THAN_EQUAL:
+        return column + " <= " + parameter(property, type, false);
+      case BETWEEN:
+        return column + " BETWEEN " + parameter(property, type, false) + " AND " + parameter(property, type, false);
+      case IS_NULL:
+        return column + " IS NULL";
+      case IS_NOT_NULL:
+        return column + " IS NOT NULL";
+      case TRUE:
+        return column + " = TRUE";
+      case FALSE:
+        return column + " = FALSE";
+      case LIKE:
+        return comparison(part, property, " LIKE ");
+      case NOT_LIKE:
+        return comparison(part, property, " NOT LIKE ");
+      case STARTING_WITH:
+        return function("STARTS_WITH", part, property);
+      case ENDING_WITH:
+        return function("ENDS_WITH", part, property);
+      case CONTAINING:
+        if (property.isCollectionLike()) {
+          return parameter(property, property.getComponentType(), false) + " IN UNNEST(" + column + ")";
+        }
+        return function("STRPOS", part, property) + " > 0";
+      case NOT_CONTAINING:
+        if (property.isCollectionLike()) {
+          return parameter(property, property.getComponentType(), false) + " NOT IN UNNEST(" + column + ")";
+        }
+        return function("STRPOS", part, property) + " = 0";
+      case IN:
+        return column + " IN UNNEST(" + parameter(property, type, true) + ")";
+      case NOT_IN:
+        return column + " NOT IN UNNEST(" + parameter(property, type, true) + ")";
+      case REGEX:
+        return function("REGEXP_CONTAINS", part, property);
+      default:
+        throw new UnsupportedOperationException(
+            String.format("Unsupported keyword %s in query method %s", part.getType(), tree));
+    }
+  }
+
+  private String comparison(Part part, SpannerPersistentProperty property, String operator) {
+    boolean ignoreCase = ignoreCase(part, property);
+    String parameter = parameter(property, property.getType(), false);
+    return ignoreCase
+        ? "LOWER(" + property.getColumnName() + ")" + operator + "LOWER(" + parameter + ")"
+        : property.getColumnName() + operator + parameter;
+  }
+
+  /**
+   * Rejects {@literal null} arguments for the parameter of the criterion, which would compare with {@code NULL} and
+   * match no rows, rather than silently returning nothing; {@code IsNull} and {@code IsNotNull} match them.
+   */
+  private String nonNull(String criterion) {
+    bindings.get(bindings.size() - 1).setNullable(false);
+    return criterion;
+  }
+
+  private String function(String function, Part part, SpannerPersistentProperty property) {
+    boolean ignoreCase = ignoreCase(part, property);
+    String parameter = parameter(property, property.getType(), false);
+    return ignoreCase
+        ? function + "(LOWER(" + property.getColumnName() + "), LOWER(" + parameter + "))"
+        : function + "(" + property.getColumnName() + ", " + parameter + ")";
+  }
+
+  /**
+   * Returns whether the part compares case insensitively. {@code AllIgnoreCase} only applies to properties stored as
+   * strings, while an explicit {@code IgnoreCase} on any other property is rejected.
+   */
+  private boolean ignoreCase(Part part, SpannerPersistentProperty property) {
+    if (part.shouldIgnoreCase() == Part.IgnoreCaseType.NEVER) {
+      return false;
+    }
+    boolean string = String.class.equals(customConversions.getSpannerType(property.getType()));
+    if (!string && part.shouldIgnoreCase() == Part.IgnoreCaseType.ALWAYS) {
+      throw new SpannerDataException(String.format("IgnoreCase is not supported for property %s of type %s",
+          property.getName(), property.getType().getName()));
+    }
+    return string;
+  }
+
+  private String parameter(SpannerPersistentProperty property, Class<?> type, boolean array) {
+    int index = bindings.size();
+    String name = "p" + index;
+    SpannerParameterBinding binding = SpannerParameterBinding.create(name, index, type, array, customConversions);
+    if (binding == null) {
+      throw new SpannerDataException(
+          String.format("Unsupported parameter type %s for property %s", type.getName(), property.getName()));
+    }
+    bindings.add(binding);
+    return "@" + name;
+  }
+
+  private SpannerPersistentProperty property(PropertyPath path) {
+    if (path.hasNext()) {
+      throw new UnsupportedOperationException(
+          String.format("Nested property %s is not supported in query method %s", path.toDotPath(), tree));
+    }
+    return property(path.getSegment());
+  }
+
+  private SpannerPersistentProperty property(String name) {
+    SpannerPersistentProperty property = persistentEntity.getPersistentProperty(name);
+    if (property == null) {
+      throw new SpannerDataException(
+          String.format("No property %s found on %s", name, persistentEntity.getType().getName()));
+    }
+    return property;
+  }
+}
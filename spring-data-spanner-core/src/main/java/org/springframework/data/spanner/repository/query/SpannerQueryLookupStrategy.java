@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.query;
+
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.repository.core.NamedQueries;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.spanner.core.SpannerOperations;
+import org.springframework.data.spanner.repository.ReactiveSpannerRepository;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@link QueryLookupStrategy} creating a {@link RepositoryQuery} for every query method of a Spanner repository.
+ * Queries are executed blocking and their results are not adapted to reactive types, so query methods cannot be
+ * declared on a {@link ReactiveSpannerRepository}.
+ */
+public class SpannerQueryLookupStrategy implements QueryLookupStrategy {
+  private static final boolean REACTOR_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Flux",
+      SpannerQueryLookupStrategy.class.getClassLoader());
+
+  private final SpannerOperations operations;
+
+  public SpannerQueryLookupStrategy(SpannerOperations operations) {
+    this.operations = operations;
+  }
+
+  @Override
+  public RepositoryQuery resolveQuery(Method method, RepositoryMetadata metadata, ProjectionFactory factory,
+                                      NamedQueries namedQueries) {
+    if (REACTOR_PRESENT && ReactiveSpannerRepository.class.isAssignableFrom(metadata.getRepositoryInterface())) {
+      throw new UnsupportedOperationException(String.format(
+          "Query methods are not supported by reactive Spanner repositories: %s", method));
+    }
+    SpannerQueryMethod queryMethod = new SpannerQueryMethod(method, metadata, factory);
+    if (queryMethod.hasAnnotatedQuery()) {
+      return new StringBasedSpannerQuery(queryMethod, operations);
+    }
+    return new PartTreeSpannerQuery(queryMethod, operations);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.query;
+
+import com.google.cloud.spanner.TimestampBound;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.spanner.repository.Query;
+import org.springframework.data.spanner.repository.StaleRead;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Spanner specific {@link QueryMethod}.
+ */
+public class SpannerQueryMethod extends QueryMethod {
+  private final Method method;
+  private final Query query;
+  private final TimestampBound timestampBound;
+
+  public SpannerQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory) {
+    super(method, metadata, factory);
+    this.method = method;
+    this.query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+    this.timestampBound = timestampBound(method, metadata);
+  }
+
+  private static TimestampBound timestampBound(Method method, RepositoryMetadata metadata) {
+    StaleRead staleRead = AnnotatedElementUtils.findMergedAnnotation(method, StaleRead.class);
+    if (staleRead == null) {
+      staleRead = AnnotatedElementUtils.findMergedAnnotation(metadata.getRepositoryInterface(), StaleRead.class);
+    }
+    if (staleRead == null) {
+      return null;
+    }
+    return staleRead.exact()
+        ? TimestampBound.ofExactStaleness(staleRead.value(), staleRead.unit())
+        : TimestampBound.ofMaxStaleness(staleRead.value(), staleRead.unit());
+  }
+
+  public Method getMethod() {
+    return method;
+  }
+
+  public boolean hasAnnotatedQuery() {
+    return query != null && StringUtils.hasText(query.value());
+  }
+
+  /**
+   * Returns the SQL declared with {@link Query}, or {@literal null} if the query is derived from the method name.
+   */
+  public String getAnnotatedQuery() {
+    return hasAnnotatedQuery() ? query.value() : null;
+  }
+
+  /**
+   * Returns the bound of the reads declared with {@link StaleRead}, or {@literal null} for strong reads.
+   */
+  public TimestampBound getTimestampBound() {
+    return timestampBound;
+  }
+
+  public Class<?> getEntityType() {
+    return getEntityInformation().getJavaType();
+  }
+}
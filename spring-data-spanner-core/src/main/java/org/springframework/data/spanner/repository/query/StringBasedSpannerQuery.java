@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.query;
+
+import com.google.cloud.spanner.Statement;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.repository.query.Parameter;
+import org.springframework.data.repository.query.Parameters;
+import org.springframework.data.repository.query.ParametersParameterAccessor;
+import org.springframework.data.repository.query.ReturnedType;
+import org.springframework.data.spanner.core.SpannerOperations;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
+import org.springframework.data.spanner.core.mapping.SpannerDataException;
+import org.springframework.data.spanner.repository.Query;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link AbstractSpannerQuery} executing the SQL declared with {@link Query}. The named parameters of the statement
+ * are resolved to method parameters once when the repository is initialized.
+ * <p>
+ * A statement selecting {@code *} from a single table reads only the columns needed by the returned type instead
+ * when the query method returns a projection. Joins, set operations and any other statement are executed as declared.
+ */
+public class StringBasedSpannerQuery extends AbstractSpannerQuery {
+  private static final Pattern SELECT_ALL = Pattern.compile("^\\s*SELECT\\s+\\*\\s+FROM\\s", Pattern.CASE_INSENSITIVE);
+  private static final Pattern SINGLE_TABLE = Pattern.compile(
+      "^\\s*SELECT\\s+\\*\\s+FROM\\s+`?\\w+`?(\\s+(AS\\s+)?(?!(WHERE|ORDER|LIMIT)\\b)\\w+)?\\s*($|WHERE\\b|ORDER\\s+BY\\b|LIMIT\\b)",
+      Pattern.CASE_INSENSITIVE);
+  private static final Pattern SET_OPERATION = Pattern.compile("\\b(UNION|INTERSECT|EXCEPT)\\b", Pattern.CASE_INSENSITIVE);
+
+  private final String sql;
+  private final boolean selectAll;
+  private final List<SpannerParameterBinding> bindings;
+  private final ConcurrentMap<Class<?>, String> sqlByReturnedType = new ConcurrentHashMap<>();
+
+  public StringBasedSpannerQuery(SpannerQueryMethod queryMethod, SpannerOperations operations) {
+    super(queryMethod, operations);
+    this.sql = queryMethod.getAnnotatedQuery();
+    this.selectAll = isSingleTableSelectAll(sql);
+    this.bindings = createBindings(queryMethod, parameterNames(sql), customConversions());
+  }
+
+  @Override
+  protected Statement createStatement(ParametersParameterAccessor accessor, ReturnedType returnedType) {
+    return bind(getSql(returnedType), bindings, accessor);
+  }
+
+  /**
+   * Returns whether the statement selects {@code *} from a single table, so that the columns of that table can be
+   * selected instead.
+   */
+  static boolean isSingleTableSelectAll(String sql) {
+    return SINGLE_TABLE.matcher(sql).find() && !SET_OPERATION.matcher(sql).find();
+  }
+
+  String getSql(ReturnedType returnedType) {
+    if (!selectAll || !returnedType.isProjecting()) {
+      return sql;
+    }
+    String projected = sqlByReturnedType.get(returnedType.getReturnedType());
+    if (projected == null) {
+      Matcher matcher = SELECT_ALL.matcher(sql);
+      projected = matcher.replaceFirst(Matcher.quoteReplacement(
+          "SELECT " + StringUtils.collectionToDelimitedString(columns(returnedType), ", ") + " FROM "));
+      sqlByReturnedType.putIfAbsent(returnedType.getReturnedType(), projected);
+    }
+    return projected;
+  }
+
+  private static List<SpannerParameterBinding> createBindings(SpannerQueryMethod queryMethod,
+                                                              Set<String> parameterNames,
+                                                              SpannerCustomConversions customConversions) {
+    Parameters<?, ?> parameters = queryMethod.getParameters().getBindableParameters();
+    List<SpannerParameterBinding> bindings = new ArrayList<>();
+    for (String name : parameterNames) {
+      bindings.add(createBinding(queryMethod, parameters, name, customConversions));
+    }
+    return bindings;
+  }
+
+  private static SpannerParameterBinding createBinding(SpannerQueryMethod queryMethod, Parameters<?, ?> parameters,
+                                                       String name, SpannerCustomConversions customConversions) {
+    for (int i = 0; i < parameters.getNumberOfParameters(); i++) {
+      Parameter parameter = parameters.getParameter(i);
+      if (!parameter.isNamedParameter() || !name.equals(parameter.getName())) {
+        continue;
+      }
+      ResolvableType type = ResolvableType.forMethodParameter(queryMethod.getMethod(), parameter.getIndex());
+      boolean array = type.isArray() || Collection.class.isAssignableFrom(type.resolve(Object.class));
+      Class<?> valueType = type.isArray()
+          ? type.getComponentType().resolve(Object.class)
+          : array ? type.asCollection().resolveGeneric(0) : type.resolve(Object.class);
+      SpannerParameterBinding binding = valueType == null
+          ? null : SpannerParameterBinding.create(name, i, valueType, array, customConversions);
+      if (binding == null) {
+        throw new SpannerDataException(String.format("Unsupported type %s of parameter @%s in %s",
+            type, name, queryMethod.getMethod()));
+      }
+      return binding;
+    }
+    throw new IllegalStateException(String.format("No method parameter named %s found for query parameter @%s in %s",
+        name, name, queryMethod.getMethod()));
+  }
+
+  /**
+   * Returns the names of the {@code @name} parameters of a statement, ignoring quoted literals and identifiers.
+   */
+  static Set<String> parameterNames(String sql) {
+    Set<String> names = new LinkedHashSet<>();
+    char quote = 0;
+    for (int i = 0; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        if (c == '\\') {
+          i++;
+        } else if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+      } else if (c == '@' && i + 1 < sql.length() && Character.isJavaIdentifierStart(sql.charAt(i + 1))) {
+        int end = i + 1;
+        while (end < sql.length() && Character.isJavaIdentifierPart(sql.charAt(end))) {
+          end++;
+        }
+        names.add(sql.substring(i + 1, end));
+        i = end - 1;
+      }
+    }
+    return names;
+  }
+}
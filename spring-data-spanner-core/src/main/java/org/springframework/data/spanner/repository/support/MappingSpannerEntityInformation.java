@@ -16,6 +16,7 @@
 
 package org.springframework.data.spanner.repository.support;
 
+import com.google.cloud.spanner.Key;
 import org.springframework.data.repository.core.support.PersistentEntityInformation;
 import org.springframework.data.spanner.core.mapping.SpannerPersistentEntity;
 
@@ -26,7 +27,30 @@ import java.io.Serializable;
  */
 public class MappingSpannerEntityInformation<T, ID extends Serializable> extends PersistentEntityInformation<T, ID>
     implements SpannerEntityInformation<T, ID> {
+  private final SpannerPersistentEntity<T> entity;
+
   public MappingSpannerEntityInformation(SpannerPersistentEntity<T> entity) {
     super(entity);
+    this.entity = entity;
+  }
+
+  /**
+   * Entities with a multi-part primary key are identified by their {@link Key}.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public ID getId(T object) {
+    return entity.hasCompositeKey() ? (ID) entity.getKey(object) : super.getId(object);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Class<ID> getIdType() {
+    return entity.hasCompositeKey() ? (Class<ID>) Key.class : super.getIdType();
+  }
+
+  @Override
+  public Key getKey(ID id) {
+    return entity.getKeyForId(id);
   }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.support;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import org.springframework.data.spanner.core.ReactiveSpannerOperations;
+import org.springframework.data.spanner.repository.ReactiveSpannerRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Default implementation of {@link ReactiveSpannerRepository}.
+ */
+public class SimpleReactiveSpannerRepository<T, ID extends Serializable> implements ReactiveSpannerRepository<T, ID> {
+  private final SpannerEntityInformation<T, ID> entityInformation;
+  private final ReactiveSpannerOperations reactiveSpannerOperations;
+
+  public SimpleReactiveSpannerRepository(SpannerEntityInformation<T, ID> entityInformation,
+                                         ReactiveSpannerOperations reactiveSpannerOperations) {
+    this.entityInformation = entityInformation;
+    this.reactiveSpannerOperations = reactiveSpannerOperations;
+  }
+
+  @Override
+  public ReactiveSpannerOperations getReactiveSpannerOperations() {
+    return reactiveSpannerOperations;
+  }
+
+  @Override
+  public <S extends T> Mono<S> save(S entity) {
+    return reactiveSpannerOperations.upsert(entity).then(Mono.just(entity));
+  }
+
+  @Override
+  public <S extends T> Flux<S> save(Iterable<S> entities) {
+    List<S> result = new ArrayList<>();
+    for (S entity : entities) {
+      result.add(entity);
+    }
+    return reactiveSpannerOperations.upsertAll(result).thenMany(Flux.fromIterable(result));
+  }
+
+  @Override
+  public Mono<T> findOne(ID id) {
+    return reactiveSpannerOperations.find(entityInformation.getJavaType(), entityInformation.getKey(id));
+  }
+
+  @Override
+  public Mono<Boolean> exists(ID id) {
+    return reactiveSpannerOperations.exists(entityInformation.getJavaType(), entityInformation.getKey(id));
+  }
+
+  @Override
+  public Flux<T> findAll() {
+    return reactiveSpannerOperations.findAll(entityInformation.getJavaType());
+  }
+
+  @Override
+  public Flux<T> findAll(Iterable<ID> ids) {
+    KeySet.Builder builder = KeySet.newBuilder();
+    for (ID id : ids) {
+      builder.addKey(entityInformation.getKey(id));
+    }
+    return reactiveSpannerOperations.find(entityInformation.getJavaType(), builder.build());
+  }
+
+  @Override
+  public Mono<Long> count() {
+    return reactiveSpannerOperations.count(entityInformation.getJavaType());
+  }
+
+  @Override
+  public Mono<Void> delete(ID id) {
+    return reactiveSpannerOperations.delete(entityInformation.getJavaType(), entityInformation.getKey(id));
+  }
+
+  @Override
+  public Mono<Void> delete(T entity) {
+    return reactiveSpannerOperations.delete(entity);
+  }
+
+  @Override
+  public Mono<Void> delete(Iterable<? extends T> entities) {
+    return reactiveSpannerOperations.delete(entityInformation.getJavaType(), entities);
+  }
+
+  @Override
+  public Mono<Void> deleteAll() {
+    return reactiveSpannerOperations.delete(entityInformation.getJavaType(), KeySet.all());
+  }
+}
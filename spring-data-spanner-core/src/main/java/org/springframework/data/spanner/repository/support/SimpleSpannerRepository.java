@@ -16,10 +16,21 @@
 
 package org.springframework.data.spanner.repository.support;
 
-import com.google.cloud.spanner.Key;
-import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.data.spanner.core.SpannerOperations;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.SpannerDataException;
+import org.springframework.data.spanner.core.mapping.SpannerPersistentProperty;
+import org.springframework.data.spanner.repository.KeysetPage;
+import org.springframework.data.spanner.repository.KeysetPageRequest;
 import org.springframework.data.spanner.repository.SpannerRepository;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -31,10 +42,20 @@ import java.util.List;
 public class SimpleSpannerRepository<T, ID extends Serializable> implements SpannerRepository<T, ID> {
   private final SpannerEntityInformation<T, ID> entityInformation;
   private final SpannerOperations spannerOperations;
+  private final BasicSpannerPersistentEntity<?> persistentEntity;
+  private final String selectAll;
+  private final String selectPage;
 
   public SimpleSpannerRepository(SpannerEntityInformation<T, ID> entityInformation, SpannerOperations spannerOperations) {
     this.entityInformation = entityInformation;
     this.spannerOperations = spannerOperations;
+    this.persistentEntity = spannerOperations.getMappingContext().getPersistentEntity(entityInformation.getJavaType());
+    this.selectAll = "SELECT " + StringUtils.collectionToDelimitedString(persistentEntity.columns(), ", ")
+        + " FROM " + persistentEntity.tableName();
+    // pages are ordered by primary key unless sorted otherwise
+    this.selectPage = persistentEntity.primaryKeyColumns().isEmpty() ? null : selectAll + " ORDER BY "
+        + StringUtils.collectionToDelimitedString(persistentEntity.primaryKeyColumns(), ", ")
+        + " LIMIT @limit OFFSET @offset";
   }
 
   @Override
@@ -52,20 +73,20 @@ public class SimpleSpannerRepository<T, ID extends Serializable> implements Span
   public <S extends T> Iterable<S> save(Iterable<S> entities) {
     List<S> result = new ArrayList<>();
     for (S entity : entities) {
-      // TODO fix me, this can be better in Spanner
-      save(entity);
+      result.add(entity);
     }
+    spannerOperations.upsertAll(result);
     return result;
   }
 
   @Override
   public T findOne(ID id) {
-    return spannerOperations.find(entityInformation.getJavaType(), Key.of(id));
+    return spannerOperations.find(entityInformation.getJavaType(), entityInformation.getKey(id));
   }
 
   @Override
   public boolean exists(ID id) {
-    return findOne(id) != null;
+    return spannerOperations.exists(entityInformation.getJavaType(), entityInformation.getKey(id));
   }
 
   @Override
@@ -73,14 +94,107 @@ public class SimpleSpannerRepository<T, ID extends Serializable> implements Span
     return spannerOperations.findAll(entityInformation.getJavaType());
   }
 
+  @Override
+  public Iterable<T> findAll(Sort sort) {
+    if (sort == null) {
+      return findAll();
+    }
+    return spannerOperations.find(entityInformation.getJavaType(), Statement.of(selectAll + orderBy(sort)));
+  }
+
+  /**
+   * Reads a page with {@code LIMIT} and {@code OFFSET}. The total is counted only when the page cannot tell it.
+   */
+  @Override
+  public Page<T> findAll(Pageable pageable) {
+    if (pageable == null) {
+      List<T> content = spannerOperations.findAll(entityInformation.getJavaType());
+      return new PageImpl<T>(content);
+    }
+    if (pageable.getSort() == null) {
+      requirePrimaryKey("Unsorted pages");
+    }
+    String sql = pageable.getSort() == null
+        ? selectPage
+        : selectAll + orderBy(pageable.getSort()) + " LIMIT @limit OFFSET @offset";
+    Statement statement = Statement.newBuilder(sql)
+        .bind("limit").to((long) pageable.getPageSize())
+        .bind("offset").to((long) pageable.getOffset())
+        .build();
+    List<T> content = spannerOperations.find(entityInformation.getJavaType(), statement);
+    return PageableExecutionUtils.getPage(content, pageable, this::count);
+  }
+
+  @Override
+  public KeysetPage<T> findAll(KeysetPageRequest request) {
+    Assert.notNull(request, "KeysetPageRequest must not be null!");
+    requirePrimaryKey("Keyset pages");
+    KeySet keys = request.getLastKey() == null
+        ? KeySet.all()
+        : KeySet.range(KeyRange.openClosed(request.getLastKey(), Key.of()));
+    // one extra row tells whether there is a next page
+    List<T> rows = spannerOperations.find(entityInformation.getJavaType(), keys,
+        Options.limit(request.getPageSize() + 1));
+
+    boolean hasNext = rows.size() > request.getPageSize();
+    List<T> content = hasNext ? rows.subList(0, request.getPageSize()) : rows;
+    Key lastKey = content.isEmpty()
+        ? request.getLastKey()
+        : persistentEntity.getKey(content.get(content.size() - 1));
+    return new KeysetPage<T>(content, request, hasNext, lastKey, this::count);
+  }
+
+  private void requirePrimaryKey(String usage) {
+    if (persistentEntity.primaryKeyColumns().isEmpty()) {
+      throw new SpannerDataException(String.format(
+          "%s are ordered by primary key, but no primary key is defined for %s", usage,
+          entityInformation.getJavaType().getName()));
+    }
+  }
+
+  private String orderBy(Sort sort) {
+    StringBuilder orderBy = new StringBuilder();
+    for (Sort.Order order : sort) {
+      SpannerPersistentProperty property = persistentEntity.getPersistentProperty(order.getProperty());
+      if (property == null) {
+        throw new IllegalArgumentException(String.format("No property %s found on %s", order.getProperty(),
+            entityInformation.getJavaType().getName()));
+      }
+      String column = property.getColumnName();
+      orderBy.append(orderBy.length() == 0 ? " ORDER BY " : ", ")
+          .append(order.isIgnoreCase() ? "LOWER(" + column + ")" : column)
+          .append(order.isAscending() ? " ASC" : " DESC");
+    }
+    return orderBy.toString();
+  }
+
   @Override
   public Iterable<T> findAll(Iterable<ID> iterable) {
+    return spannerOperations.find(entityInformation.getJavaType(), keys(iterable));
+  }
+
+  @Override
+  public <P> P findOne(ID id, Class<P> projectionType) {
+    List<P> result = spannerOperations.find(entityInformation.getJavaType(), projectionType, KeySet.singleKey(entityInformation.getKey(id)));
+    return result.isEmpty() ? null : result.get(0);
+  }
+
+  @Override
+  public <P> Iterable<P> findAll(Class<P> projectionType) {
+    return spannerOperations.find(entityInformation.getJavaType(), projectionType, KeySet.all());
+  }
+
+  @Override
+  public <P> Iterable<P> findAll(Iterable<ID> ids, Class<P> projectionType) {
+    return spannerOperations.find(entityInformation.getJavaType(), projectionType, keys(ids));
+  }
+
+  private KeySet keys(Iterable<ID> ids) {
     KeySet.Builder builder = KeySet.newBuilder();
-    for (ID id : iterable) {
-      builder.addKey(Key.of(id));
+    for (ID id : ids) {
+      builder.addKey(entityInformation.getKey(id));
     }
-
-    return spannerOperations.find(entityInformation.getJavaType(), builder.build());
+    return builder.build();
   }
 
   @Override
@@ -90,7 +204,7 @@ public class SimpleSpannerRepository<T, ID extends Serializable> implements Span
 
   @Override
   public void delete(ID id) {
-    spannerOperations.delete(entityInformation.getJavaType(), Key.of(id));
+    spannerOperations.delete(entityInformation.getJavaType(), entityInformation.getKey(id));
   }
 
   @Override
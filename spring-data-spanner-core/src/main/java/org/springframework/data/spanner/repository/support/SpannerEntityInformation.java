@@ -16,8 +16,8 @@
 
 package org.springframework.data.spanner.repository.support;
 
+import com.google.cloud.spanner.Key;
 import org.springframework.data.repository.core.EntityInformation;
-import org.springframework.data.repository.core.support.AbstractEntityInformation;
 
 import java.io.Serializable;
 
@@ -25,4 +25,9 @@ import java.io.Serializable;
  * Created by rayt on 3/23/17.
  */
 public interface SpannerEntityInformation<T, ID extends Serializable> extends EntityInformation<T, ID> {
+  /**
+   * Returns the primary {@link Key} for the given id, which is either a {@link Key} or the value of a single column
+   * primary key.
+   */
+  Key getKey(ID id);
 }
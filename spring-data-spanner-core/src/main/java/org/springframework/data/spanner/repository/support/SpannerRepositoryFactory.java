@@ -21,10 +21,16 @@ import org.springframework.data.querydsl.QueryDslPredicateExecutor;
 import org.springframework.data.repository.core.RepositoryInformation;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.data.repository.query.EvaluationContextProvider;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.spanner.core.ReactiveSpannerTemplate;
 import org.springframework.data.spanner.core.SpannerOperations;
 import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
 import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
 import org.springframework.data.spanner.core.mapping.SpannerPersistentEntity;
+import org.springframework.data.spanner.repository.ReactiveSpannerRepository;
+import org.springframework.data.spanner.repository.query.SpannerQueryLookupStrategy;
+import org.springframework.util.ClassUtils;
 
 import java.io.Serializable;
 
@@ -34,6 +40,9 @@ import static org.springframework.data.querydsl.QueryDslUtils.QUERY_DSL_PRESENT;
  * Created by rayt on 3/23/17.
  */
 public class SpannerRepositoryFactory extends RepositoryFactorySupport {
+  private static final boolean REACTOR_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Flux",
+      SpannerRepositoryFactory.class.getClassLoader());
+
   private final SpannerOperations operations;
   private final SpannerMappingContext mappingContext;
 
@@ -46,6 +55,9 @@ public class SpannerRepositoryFactory extends RepositoryFactorySupport {
   protected Object getTargetRepository(RepositoryInformation information) {
     SpannerEntityInformation<?, Serializable> entityInformation = getEntityInformation(information.getDomainType(),
         information);
+    if (isReactiveRepository(information)) {
+      return getTargetRepositoryViaReflection(information, entityInformation, new ReactiveSpannerTemplate(operations));
+    }
     return getTargetRepositoryViaReflection(information, entityInformation, operations);
   }
 
@@ -75,7 +87,20 @@ public class SpannerRepositoryFactory extends RepositoryFactorySupport {
         && QueryDslPredicateExecutor.class.isAssignableFrom(repositoryMetadata.getRepositoryInterface());
 
 //    return isQueryDslRepository ? QueryDslSpannerRepository.class : SimpleSpannerRepository.class;
+    if (isReactiveRepository(repositoryMetadata)) {
+      return SimpleReactiveSpannerRepository.class;
+    }
     return SimpleSpannerRepository.class;
 
   }
+
+  @Override
+  protected QueryLookupStrategy getQueryLookupStrategy(QueryLookupStrategy.Key key,
+                                                       EvaluationContextProvider evaluationContextProvider) {
+    return new SpannerQueryLookupStrategy(operations);
+  }
+
+  private static boolean isReactiveRepository(RepositoryMetadata repositoryMetadata) {
+    return REACTOR_PRESENT && ReactiveSpannerRepository.class.isAssignableFrom(repositoryMetadata.getRepositoryInterface());
+  }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.TimestampBound;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AsyncSpannerTemplateTest {
+  private final FakeDatabaseClient databaseClient = new FakeDatabaseClient();
+  private final SpannerTemplate template = new SpannerTemplate(databaseClient, new SpannerMappingContext());
+
+  private AsyncSpannerTemplate asyncTemplate = new AsyncSpannerTemplate(template, 2, 4);
+
+  @After
+  public void tearDown() {
+    asyncTemplate.destroy();
+  }
+
+  @Test
+  public void writesOnExecutorThread() throws Exception {
+    asyncTemplate.insert(singer("marc")).get(5, TimeUnit.SECONDS);
+
+    assertEquals(1, databaseClient.writes.size());
+    assertNotSame(Thread.currentThread(), databaseClient.threads.get(0));
+    assertTrue(databaseClient.threads.get(0).isDaemon());
+  }
+
+  @Test
+  public void rejectsOperationsBeyondMaxInFlight() throws Exception {
+    List<Runnable> tasks = new ArrayList<>();
+    asyncTemplate = new AsyncSpannerTemplate(template, tasks::add, 1);
+
+    CompletableFuture<Void> first = asyncTemplate.insert(singer("a"));
+    CompletableFuture<Void> second = asyncTemplate.insert(singer("b"));
+
+    assertEquals(0, asyncTemplate.getAvailablePermits());
+    try {
+      second.get();
+      fail("Expected the second insert to be rejected");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+
+    tasks.get(0).run();
+    first.get();
+    assertEquals(1, asyncTemplate.getAvailablePermits());
+    assertEquals(1, databaseClient.writes.size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rejectsCallsInManagedTransaction() {
+    new TransactionTemplate(new SpannerTransactionManager(template)).execute(status -> asyncTemplate.insert(singer("marc")));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rejectsCallsInReadOnlySnapshot() {
+    template.readOnlyTransaction(TimestampBound.strong(), context -> {
+      asyncTemplate.find(Singer.class, Key.of("marc"));
+    });
+  }
+
+  @Test
+  public void acceptsCallsAfterTransaction() throws Exception {
+    template.readOnlyTransaction(TimestampBound.strong(), context -> {
+    });
+
+    asyncTemplate.insert(singer("marc")).get(5, TimeUnit.SECONDS);
+    assertEquals(1, databaseClient.writes.size());
+  }
+
+  private static Singer singer(String id) {
+    Singer singer = new Singer();
+    singer.id = id;
+    return singer;
+  }
+
+  @Table(name = "Singers")
+  static class Singer {
+    @Id
+    String id;
+    String name;
+  }
+}
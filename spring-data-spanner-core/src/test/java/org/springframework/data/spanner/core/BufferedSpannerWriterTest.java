@@ -0,0 +1,198 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.Mutation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class BufferedSpannerWriterTest {
+  private FakeDatabaseClient databaseClient;
+  private SpannerTemplate template;
+  private BufferedSpannerWriter writer;
+
+  @Before
+  public void setUp() {
+    databaseClient = new FakeDatabaseClient();
+    template = new SpannerTemplate(databaseClient, new SpannerMappingContext());
+    writer = new BufferedSpannerWriter(template);
+    writer.setMaxLatencyMillis(60000);
+  }
+
+  @After
+  public void tearDown() {
+    writer.stop();
+  }
+
+  @Test
+  public void flushesOnceBatchIsFull() throws InterruptedException {
+    writer.setMaxBatchSize(2);
+    Mutation first = mutation(1);
+    Mutation second = mutation(2);
+
+    writer.write(first);
+    assertEquals(1, writer.getPendingCount());
+    writer.write(second);
+
+    await(() -> databaseClient.writes.size() == 1);
+    assertEquals(Arrays.asList(first, second), databaseClient.writes.get(0));
+    assertTrue(databaseClient.threads.get(0).isDaemon());
+  }
+
+  @Test
+  public void flushesPendingMutationsOnStop() {
+    Mutation mutation = mutation(1);
+    writer.write(mutation);
+    assertTrue(databaseClient.writes.isEmpty());
+
+    writer.stop();
+
+    assertEquals(Collections.singletonList(Collections.singletonList(mutation)), databaseClient.writes);
+    assertFalse(writer.isRunning());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rejectsWritesAfterStop() {
+    writer.write(mutation(1));
+    writer.stop();
+
+    writer.write(mutation(2));
+  }
+
+  @Test
+  public void acceptsWritesAfterRestart() {
+    writer.stop();
+    writer.start();
+
+    writer.write(mutation(1));
+    writer.flush();
+
+    assertEquals(1, databaseClient.writes.size());
+  }
+
+  @Test
+  public void flushesOnCallerThreadWhenBufferIsFull() {
+    writer.setMaxPendingMutations(2);
+    Mutation first = mutation(1);
+    Mutation second = mutation(2);
+
+    writer.write(first);
+    writer.write(second);
+    writer.write(mutation(3));
+
+    assertEquals(Collections.singletonList(Arrays.asList(first, second)), databaseClient.writes);
+    assertSame(Thread.currentThread(), databaseClient.threads.get(0));
+    assertEquals(1, writer.getPendingCount());
+  }
+
+  @Test
+  public void splitsBatchesByCommitCells() {
+    // every mutation writes three cells
+    writer.setMaxCommitCells(7);
+    for (int i = 0; i < 5; i++) {
+      writer.write(mutation(i));
+    }
+
+    writer.flush();
+
+    assertEquals(3, databaseClient.writes.size());
+    assertEquals(2, databaseClient.writes.get(0).size());
+    assertEquals(2, databaseClient.writes.get(1).size());
+    assertEquals(1, databaseClient.writes.get(2).size());
+  }
+
+  @Test
+  public void takesCommitCellsFromTemplate() {
+    template.setMaxCommitCells(7);
+    writer = new BufferedSpannerWriter(template);
+    for (int i = 0; i < 3; i++) {
+      writer.write(mutation(i));
+    }
+
+    writer.flush();
+
+    assertEquals(2, databaseClient.writes.size());
+  }
+
+  @Test
+  public void retriesAbortedFlushes() {
+    databaseClient.aborts.set(1);
+    Mutation mutation = mutation(1);
+    writer.write(mutation);
+
+    writer.flush();
+
+    assertEquals(2, databaseClient.writeAttempts.get());
+    assertEquals(Collections.singletonList(Collections.singletonList(mutation)), databaseClient.writes);
+  }
+
+  @Test
+  public void flushesOutsideOfCallerTransaction() {
+    new TransactionTemplate(new SpannerTransactionManager(template)).execute(status -> {
+      writer.write(mutation(1));
+      writer.flush();
+      assertEquals(1, databaseClient.writes.size());
+      status.setRollbackOnly();
+      return null;
+    });
+
+    assertEquals(1, databaseClient.writes.size());
+  }
+
+  @Test
+  public void throwingFailureCallbackDoesNotCancelPeriodicFlush() throws InterruptedException {
+    writer.setMaxLatencyMillis(10);
+    writer.setFailureCallback((batch, ex) -> {
+      throw new IllegalStateException("callback failed");
+    });
+    databaseClient.failures.set(1);
+
+    writer.write(mutation(1));
+    await(() -> databaseClient.writeAttempts.get() == 1);
+    Mutation mutation = mutation(2);
+    writer.write(mutation);
+
+    await(() -> databaseClient.writes.size() == 1);
+    assertEquals(Collections.singletonList(mutation), databaseClient.writes.get(0));
+  }
+
+  private static Mutation mutation(long id) {
+    return Mutation.newInsertBuilder("Singers")
+        .set("id").to(id)
+        .set("name").to("singer " + id)
+        .set("age").to(id)
+        .build();
+  }
+
+  static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean()) {
+      assertTrue("Timed out waiting for the condition", System.currentTimeMillis() < deadline);
+      Thread.sleep(5);
+    }
+  }
+}
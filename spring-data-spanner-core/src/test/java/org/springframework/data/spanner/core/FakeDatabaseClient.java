@@ -0,0 +1,257 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.*;
+import com.google.spanner.v1.ResultSetStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DatabaseClient} recording its commits and serving reads from a fixed list of rows. Like the Spanner client,
+ * its {@link TransactionRunner} runs the callable again when a commit is aborted.
+ */
+public class FakeDatabaseClient implements DatabaseClient {
+  public final List<List<Mutation>> writes = new CopyOnWriteArrayList<>();
+  public final List<KeySet> reads = new CopyOnWriteArrayList<>();
+  public final List<Statement> queries = new CopyOnWriteArrayList<>();
+  public final List<Statement> profiledQueries = new CopyOnWriteArrayList<>();
+  /**
+   * The statistics returned by profiled queries once all rows have been read.
+   */
+  public volatile ResultSetStats stats = ResultSetStats.getDefaultInstance();
+  public final AtomicInteger writeAttempts = new AtomicInteger();
+  /**
+   * The number of upcoming commits to abort.
+   */
+  public final AtomicInteger aborts = new AtomicInteger();
+  /**
+   * The number of upcoming commits to fail with {@link ErrorCode#UNAVAILABLE}.
+   */
+  public final AtomicInteger failures = new AtomicInteger();
+  public final List<Thread> threads = new CopyOnWriteArrayList<>();
+  /**
+   * The read contexts of all reads, in order.
+   */
+  public final List<ReadContext> readContexts = new CopyOnWriteArrayList<>();
+  /**
+   * The bounds of the single-use reads and read-only transactions started.
+   */
+  public final List<TimestampBound> bounds = new CopyOnWriteArrayList<>();
+
+  private final Type rowType;
+  private final List<Struct> rows;
+
+  public FakeDatabaseClient() {
+    this(null, new ArrayList<>());
+  }
+
+  public FakeDatabaseClient(Type rowType, List<Struct> rows) {
+    this.rowType = rowType;
+    this.rows = rows;
+  }
+
+  @Override
+  public Timestamp write(Iterable<Mutation> mutations) throws SpannerException {
+    return readWriteTransaction().run(transaction -> {
+      transaction.buffer(mutations);
+      return null;
+    });
+  }
+
+  private void commit(List<Mutation> batch) {
+    threads.add(Thread.currentThread());
+    writeAttempts.incrementAndGet();
+    if (decrement(aborts)) {
+      throw SpannerExceptionFactory.newSpannerException(ErrorCode.ABORTED, "aborted");
+    }
+    if (decrement(failures)) {
+      throw SpannerExceptionFactory.newSpannerException(ErrorCode.UNAVAILABLE, "unavailable");
+    }
+    writes.add(batch);
+  }
+
+  private static boolean decrement(AtomicInteger remaining) {
+    return remaining.getAndUpdate(value -> Math.max(value - 1, 0)) > 0;
+  }
+
+  @Override
+  public Timestamp writeAtLeastOnce(Iterable<Mutation> mutations) throws SpannerException {
+    return write(mutations);
+  }
+
+  @Override
+  public ReadContext singleUse() {
+    return new FakeReadContext();
+  }
+
+  @Override
+  public ReadContext singleUse(TimestampBound bound) {
+    bounds.add(bound);
+    return new FakeReadContext();
+  }
+
+  @Override
+  public ReadOnlyTransaction singleUseReadOnlyTransaction() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public ReadOnlyTransaction singleUseReadOnlyTransaction(TimestampBound bound) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public ReadOnlyTransaction readOnlyTransaction() {
+    return readOnlyTransaction(TimestampBound.strong());
+  }
+
+  @Override
+  public ReadOnlyTransaction readOnlyTransaction(TimestampBound bound) {
+    bounds.add(bound);
+    return new FakeReadOnlyTransaction();
+  }
+
+  @Override
+  public TransactionRunner readWriteTransaction() {
+    return new FakeTransactionRunner();
+  }
+
+  private class FakeTransactionRunner implements TransactionRunner {
+    private Timestamp commitTimestamp;
+
+    @Override
+    public <T> T run(TransactionCallable<T> callable) {
+      while (true) {
+        FakeTransactionContext transaction = new FakeTransactionContext();
+        T result;
+        try {
+          result = callable.run(transaction);
+        } catch (SpannerException e) {
+          throw e;
+        } catch (Exception e) {
+          throw SpannerExceptionFactory.newSpannerException(ErrorCode.UNKNOWN, e.getMessage(), e);
+        }
+        try {
+          commit(transaction.mutations);
+        } catch (SpannerException e) {
+          if (e.getErrorCode() == ErrorCode.ABORTED) {
+            continue;
+          }
+          throw e;
+        }
+        commitTimestamp = Timestamp.now();
+        return result;
+      }
+    }
+
+    @Override
+    public Timestamp getCommitTimestamp() {
+      return commitTimestamp;
+    }
+  }
+
+  private class FakeTransactionContext extends FakeReadContext implements TransactionContext {
+    private final List<Mutation> mutations = new ArrayList<>();
+
+    @Override
+    public void buffer(Mutation mutation) {
+      mutations.add(mutation);
+    }
+
+    @Override
+    public void buffer(Iterable<Mutation> mutations) {
+      for (Mutation mutation : mutations) {
+        buffer(mutation);
+      }
+    }
+  }
+
+  private class FakeReadOnlyTransaction extends FakeReadContext implements ReadOnlyTransaction {
+    private final Timestamp readTimestamp = Timestamp.now();
+
+    @Override
+    public Timestamp getReadTimestamp() {
+      return readTimestamp;
+    }
+  }
+
+  private class FakeReadContext implements ReadContext {
+    @Override
+    public ResultSet read(String table, KeySet keys, Iterable<String> columns, Options.ReadOption... options) {
+      threads.add(Thread.currentThread());
+      readContexts.add(this);
+      reads.add(keys);
+      return ResultSets.forRows(rowType, rows);
+    }
+
+    @Override
+    public ResultSet readUsingIndex(String table, String index, KeySet keys, Iterable<String> columns,
+                                    Options.ReadOption... options) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Struct readRow(String table, Key key, Iterable<String> columns) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Struct readRowUsingIndex(String table, String index, Key key, Iterable<String> columns) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ResultSet executeQuery(Statement statement, Options.QueryOption... options) {
+      threads.add(Thread.currentThread());
+      readContexts.add(this);
+      queries.add(statement);
+      return ResultSets.forRows(rowType, rows);
+    }
+
+    @Override
+    public ResultSet analyzeQuery(Statement statement, QueryAnalyzeMode queryMode) {
+      threads.add(Thread.currentThread());
+      readContexts.add(this);
+      profiledQueries.add(statement);
+      final ResultSetStats stats = FakeDatabaseClient.this.stats;
+      return new ForwardingResultSet(ResultSets.forRows(rowType, rows)) {
+        private boolean done;
+
+        @Override
+        public boolean next() {
+          done = !super.next();
+          return !done;
+        }
+
+        @Override
+        public ResultSetStats getStats() {
+          return done ? stats : null;
+        }
+      };
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.CachedCount;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.springframework.data.spanner.core.BufferedSpannerWriterTest.await;
+
+public class SpannerCountCacheTest {
+  private final AtomicLong counts = new AtomicLong();
+
+  private SpannerCountCache countCache;
+  private BasicSpannerPersistentEntity<?> persistentEntity;
+  private CachedCount cachedCount;
+
+  @Before
+  public void setUp() {
+    countCache = new SpannerCountCache();
+    persistentEntity = new SpannerMappingContext().getPersistentEntity(Singer.class);
+    cachedCount = persistentEntity.findAnnotation(CachedCount.class);
+  }
+
+  @After
+  public void tearDown() {
+    countCache.destroy();
+  }
+
+  @Test
+  public void countsOnceAndRefreshesInBackground() throws Exception {
+    assertEquals(1L, get());
+    assertEquals(1L, counts.get());
+
+    await(() -> counts.get() >= 3);
+    assertTrue(get() >= 2L);
+    assertTrue(countCache.isCached("Singers"));
+  }
+
+  @Test
+  public void schedulesOneRefreshPerTable() throws Exception {
+    BasicSpannerPersistentEntity<?> albums = new SpannerMappingContext().getPersistentEntity(Album.class);
+    CachedCount albumCount = albums.findAnnotation(CachedCount.class);
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Long>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return countCache.get(albums, albumCount, () -> {
+            sleep(20);
+            return counts.incrementAndGet();
+          });
+        }));
+      }
+      start.countDown();
+      for (Future<Long> result : results) {
+        assertEquals(1L, (long) result.get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1L, counts.get());
+  }
+
+  @Test
+  public void stopsRefreshingOnDestroy() throws Exception {
+    get();
+    countCache.destroy();
+    long count = counts.get();
+
+    TimeUnit.MILLISECONDS.sleep(50);
+    assertEquals(count, counts.get());
+    assertFalse(countCache.isCached("Singers"));
+
+    assertEquals(count + 1, get());
+    assertEquals(count + 2, get());
+    assertFalse(countCache.isCached("Singers"));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      TimeUnit.MILLISECONDS.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private long get() {
+    return countCache.get(persistentEntity, cachedCount, counts::incrementAndGet);
+  }
+
+  @Table(name = "Singers")
+  @CachedCount(refreshInterval = 10, timeUnit = TimeUnit.MILLISECONDS)
+  static class Singer {
+    @Id
+    String id;
+  }
+
+  @Table(name = "Albums")
+  @CachedCount(refreshInterval = 1, timeUnit = TimeUnit.HOURS)
+  static class Album {
+    @Id
+    String id;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.Struct;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SpannerReadCoalescerTest {
+  private final Struct first = Struct.newBuilder().set("id").to("a").set("name").to("A").build();
+  private final Struct second = Struct.newBuilder().set("id").to("b").set("name").to("B").build();
+
+  private FakeDatabaseClient databaseClient;
+  private BasicSpannerPersistentEntity<?> persistentEntity;
+  private SpannerReadCoalescer coalescer;
+
+  @Before
+  public void setUp() {
+    databaseClient = new FakeDatabaseClient(first.getType(), Arrays.asList(first, second));
+    persistentEntity = new SpannerMappingContext().getPersistentEntity(Singer.class);
+  }
+
+  @After
+  public void tearDown() {
+    coalescer.destroy();
+  }
+
+  @Test
+  public void readsKeysOfOneWindowTogether() throws Exception {
+    coalescer = new SpannerReadCoalescer(databaseClient, 100, 50, 1);
+
+    CompletableFuture<Struct> a = coalescer.readRowAsync(persistentEntity, Key.of("a"));
+    CompletableFuture<Struct> b = coalescer.readRowAsync(persistentEntity, Key.of("b"));
+    CompletableFuture<Struct> missing = coalescer.readRowAsync(persistentEntity, Key.of("c"));
+
+    assertEquals(first, a.get(5, TimeUnit.SECONDS));
+    assertEquals(second, b.get(5, TimeUnit.SECONDS));
+    assertNull(missing.get(5, TimeUnit.SECONDS));
+    assertEquals(1, databaseClient.reads.size());
+    List<Key> keys = toList(databaseClient.reads.get(0).getKeys());
+    assertEquals(Arrays.asList(Key.of("a"), Key.of("b"), Key.of("c")), keys);
+    assertTrue(databaseClient.threads.get(0).isDaemon());
+  }
+
+  @Test
+  public void readsFullBatchWithoutWaitingForWindow() throws Exception {
+    coalescer = new SpannerReadCoalescer(databaseClient, 2, TimeUnit.MINUTES.toMillis(1), 1);
+
+    CompletableFuture<Struct> a = coalescer.readRowAsync(persistentEntity, Key.of("a"));
+    CompletableFuture<Struct> b = coalescer.readRowAsync(persistentEntity, Key.of("b"));
+
+    assertTrue(a.isDone());
+    assertEquals(first, a.get());
+    assertEquals(second, b.get());
+    assertSame(Thread.currentThread(), databaseClient.threads.get(0));
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void rejectsReadsAfterDestroy() {
+    coalescer = new SpannerReadCoalescer(databaseClient, 100, 50, 1);
+    coalescer.destroy();
+
+    coalescer.readRowAsync(persistentEntity, Key.of("a"));
+  }
+
+  private static List<Key> toList(Iterable<Key> keys) {
+    List<Key> list = new ArrayList<>();
+    for (Key key : keys) {
+      list.add(key);
+    }
+    return list;
+  }
+
+  @Table(name = "Singers")
+  static class Singer {
+    @Id
+    String id;
+    String name;
+  }
+}
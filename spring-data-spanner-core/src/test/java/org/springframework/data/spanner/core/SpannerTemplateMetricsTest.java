@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Struct;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+import org.springframework.data.spanner.core.metrics.SpannerMetrics;
+import org.springframework.data.spanner.core.metrics.SpannerOperation;
+import org.springframework.data.spanner.core.metrics.SpannerStatementStatistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SpannerTemplateMetricsTest {
+  private final Struct first = Struct.newBuilder().set("id").to("a").set("name").to("A").build();
+  private final Struct second = Struct.newBuilder().set("id").to("b").set("name").to("B").build();
+
+  private FakeDatabaseClient databaseClient;
+  private SpannerTemplate template;
+  private RecordingMetrics metrics;
+
+  @Before
+  public void setUp() {
+    databaseClient = new FakeDatabaseClient(first.getType(), Arrays.asList(first, second));
+    template = new SpannerTemplate(databaseClient, new SpannerMappingContext());
+    metrics = new RecordingMetrics();
+    template.setMetrics(metrics);
+  }
+
+  @Test
+  public void recordsReadsWithRowsAndMappingTime() {
+    template.find(Singer.class, KeySet.all());
+
+    assertEquals(Collections.singletonList("read Singers true"), metrics.operations);
+    assertEquals(Collections.singletonList("read Singers 2"), metrics.rows);
+    assertEquals(Collections.singletonList("read Singers"), metrics.mappings);
+    assertTrue(metrics.mappingNanos <= metrics.operationNanos);
+  }
+
+  @Test
+  public void recordsWrites() {
+    template.insert(singer("a"));
+
+    assertEquals(Collections.singletonList("write Singers true"), metrics.operations);
+    assertEquals(Collections.singletonList("write 1"), metrics.mutations);
+  }
+
+  @Test
+  public void recordsFailedWrites() {
+    databaseClient.failures.set(1);
+
+    try {
+      template.insert(singer("a"));
+      fail("Expected the write to fail");
+    } catch (SpannerException e) {
+      assertEquals(Collections.singletonList("write Singers false"), metrics.operations);
+      assertTrue(metrics.mutations.isEmpty());
+    }
+  }
+
+  @Test
+  public void recordsTransactionsOncePerTable() {
+    template.transaction(context -> {
+      context.insert(singer("a"));
+      context.insert(singer("b"));
+    });
+
+    assertEquals(Collections.singletonList("transaction Singers true"), metrics.operations);
+    assertEquals(Collections.singletonList("transaction 2"), metrics.mutations);
+  }
+
+  @Test
+  public void recordsStatementsOfQueries() {
+    SpannerStatementStatistics statistics = new SpannerStatementStatistics();
+    template.setStatementStatistics(statistics);
+
+    template.find(Singer.class, Statement.of("SELECT id, name FROM Singers WHERE name = 'A'"));
+    template.find(Singer.class, Statement.of("SELECT id, name FROM Singers WHERE name = 'B'"));
+    template.find(Singer.class, KeySet.all());
+
+    assertEquals(1, statistics.getStatements().size());
+    SpannerStatementStatistics.StatementStatistics statement =
+        statistics.getStatements().get("SELECT id, name FROM Singers WHERE name = ?");
+    assertEquals(2, statement.getCount());
+    assertEquals(4, statement.getRows());
+  }
+
+  @Test
+  public void stopsRecordingWithoutMetrics() {
+    template.setMetrics(null);
+
+    template.find(Singer.class, KeySet.all());
+    template.insert(singer("a"));
+
+    assertSame(SpannerMetrics.NOOP, template.getMetrics());
+    assertTrue(metrics.operations.isEmpty());
+  }
+
+  private static Singer singer(String id) {
+    Singer singer = new Singer();
+    singer.id = id;
+    return singer;
+  }
+
+  @Table(name = "Singers")
+  public static class Singer {
+    @Id
+    String id;
+    String name;
+  }
+
+  static class RecordingMetrics implements SpannerMetrics {
+    final List<String> operations = new ArrayList<>();
+    final List<String> rows = new ArrayList<>();
+    final List<String> mappings = new ArrayList<>();
+    final List<String> mutations = new ArrayList<>();
+    long operationNanos;
+    long mappingNanos;
+
+    @Override
+    public void recordOperation(SpannerOperation operation, String tableName, long nanos, boolean success) {
+      operations.add(operation.getTagValue() + " " + tableName + " " + success);
+      operationNanos += nanos;
+    }
+
+    @Override
+    public void recordRows(SpannerOperation operation, String tableName, int rows) {
+      this.rows.add(operation.getTagValue() + " " + tableName + " " + rows);
+    }
+
+    @Override
+    public void recordMapping(SpannerOperation operation, String tableName, long nanos) {
+      mappings.add(operation.getTagValue() + " " + tableName);
+      mappingNanos += nanos;
+    }
+
+    @Override
+    public void recordMutations(SpannerOperation operation, int mutations) {
+      this.mutations.add(operation.getTagValue() + " " + mutations);
+    }
+  }
+}
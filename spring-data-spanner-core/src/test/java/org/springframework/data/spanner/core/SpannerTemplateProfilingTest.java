@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Struct;
+import com.google.protobuf.Value;
+import com.google.spanner.v1.ResultSetStats;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+import org.springframework.data.spanner.core.metrics.SpannerQueryStatsListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SpannerTemplateProfilingTest {
+  private final Struct first = Struct.newBuilder().set("id").to("a").set("name").to("A").build();
+  private final Struct second = Struct.newBuilder().set("id").to("b").set("name").to("B").build();
+  private final Statement statement = Statement.of("SELECT id, name FROM Singers");
+
+  private FakeDatabaseClient databaseClient;
+  private SpannerTemplate template;
+  private RecordingListener listener;
+
+  @Before
+  public void setUp() {
+    databaseClient = new FakeDatabaseClient(first.getType(), Arrays.asList(first, second));
+    com.google.protobuf.Struct queryStats = com.google.protobuf.Struct.newBuilder()
+        .putFields("rows_scanned", Value.newBuilder().setStringValue("1000").build())
+        .build();
+    databaseClient.stats = ResultSetStats.newBuilder().setQueryStats(queryStats).build();
+    template = new SpannerTemplate(databaseClient, new SpannerMappingContext());
+    listener = new RecordingListener();
+    template.setQueryStatsListener(listener);
+  }
+
+  @Test
+  public void profilesSampledStatements() {
+    template.setProfileSampleRate(1);
+
+    List<Singer> singers = template.find(Singer.class, statement);
+
+    assertEquals(2, singers.size());
+    assertEquals(Collections.singletonList(statement), databaseClient.profiledQueries);
+    assertEquals(Collections.singletonList(statement), listener.statements);
+    assertEquals(Collections.singletonList(Singer.class), listener.entityClasses);
+    assertEquals("1000",
+        listener.stats.get(0).getQueryStats().getFieldsOrThrow("rows_scanned").getStringValue());
+  }
+
+  @Test
+  public void doesNotProfileByDefault() {
+    template.find(Singer.class, statement);
+
+    assertTrue(databaseClient.profiledQueries.isEmpty());
+    assertEquals(Collections.singletonList(statement), databaseClient.queries);
+    assertTrue(listener.statements.isEmpty());
+  }
+
+  @Test
+  public void doesNotProfileWithoutListener() {
+    template.setQueryStatsListener(null);
+    template.setProfileSampleRate(1);
+
+    template.find(Singer.class, statement);
+
+    assertTrue(databaseClient.profiledQueries.isEmpty());
+  }
+
+  @Test
+  public void returnsRowsWhenListenerFails() {
+    template.setProfileSampleRate(1);
+    template.setQueryStatsListener((statement, entityClass, stats) -> {
+      throw new IllegalStateException("listener failed");
+    });
+
+    assertEquals(2, template.find(Singer.class, statement).size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsSampleRateAboveOne() {
+    template.setProfileSampleRate(1.5);
+  }
+
+  @Table(name = "Singers")
+  public static class Singer {
+    @Id
+    String id;
+    String name;
+  }
+
+  static class RecordingListener implements SpannerQueryStatsListener {
+    final List<Statement> statements = new ArrayList<>();
+    final List<Class<?>> entityClasses = new ArrayList<>();
+    final List<ResultSetStats> stats = new ArrayList<>();
+
+    @Override
+    public void onQueryStats(Statement statement, Class<?> entityClass, ResultSetStats stats) {
+      statements.add(statement);
+      entityClasses.add(entityClass);
+      this.stats.add(stats);
+    }
+  }
+}
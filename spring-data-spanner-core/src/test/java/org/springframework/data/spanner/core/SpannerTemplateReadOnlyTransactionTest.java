@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.ReadOnlyTransaction;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.TimestampBound;
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SpannerTemplateReadOnlyTransactionTest {
+  private final Struct row = Struct.newBuilder().set("id").to("a").set("name").to("A").build();
+  private final FakeDatabaseClient databaseClient =
+      new FakeDatabaseClient(row.getType(), Collections.singletonList(row));
+  private final SpannerTemplate template = new SpannerTemplate(databaseClient, new SpannerMappingContext());
+
+  @Test
+  public void readsFromOneSnapshot() {
+    TimestampBound bound = TimestampBound.ofExactStaleness(10, TimeUnit.SECONDS);
+    Timestamp[] readTimestamp = new Timestamp[1];
+
+    template.readOnlyTransaction(bound, context -> {
+      assertEquals("A", context.find(Singer.class, KeySet.all()).get(0).name);
+      // reads of the template without a bound join the snapshot as well
+      assertEquals(1, template.find(Singer.class, KeySet.all()).size());
+      readTimestamp[0] = context.getReadTimestamp();
+    });
+
+    assertEquals(Collections.singletonList(bound), databaseClient.bounds);
+    assertEquals(2, databaseClient.readContexts.size());
+    assertTrue(databaseClient.readContexts.get(0) instanceof ReadOnlyTransaction);
+    assertSame(databaseClient.readContexts.get(0), databaseClient.readContexts.get(1));
+    assertEquals(((ReadOnlyTransaction) databaseClient.readContexts.get(0)).getReadTimestamp(), readTimestamp[0]);
+  }
+
+  @Test
+  public void readsStronglyAfterTransaction() {
+    template.readOnlyTransaction(TimestampBound.strong(), context -> context.find(Singer.class, KeySet.all()));
+
+    template.find(Singer.class, KeySet.all());
+
+    assertEquals(1, databaseClient.bounds.size());
+    assertFalse(databaseClient.readContexts.get(1) instanceof ReadOnlyTransaction);
+  }
+
+  @Test
+  public void restoresOuterSnapshotAfterNestedTransaction() {
+    template.readOnlyTransaction(TimestampBound.strong(), outer -> {
+      template.readOnlyTransaction(TimestampBound.strong(), inner -> template.find(Singer.class, KeySet.all()));
+      template.find(Singer.class, KeySet.all());
+    });
+
+    List<?> contexts = databaseClient.readContexts;
+    assertNotSame(contexts.get(0), contexts.get(1));
+    assertTrue(contexts.get(1) instanceof ReadOnlyTransaction);
+  }
+
+  @Test
+  public void readsSingleUseWithBound() {
+    TimestampBound bound = TimestampBound.ofMaxStaleness(15, TimeUnit.SECONDS);
+
+    List<Singer> singers = template.find(Singer.class, KeySet.all(), bound);
+
+    assertEquals(1, singers.size());
+    assertEquals(Arrays.asList(bound), databaseClient.bounds);
+    assertFalse(databaseClient.readContexts.get(0) instanceof ReadOnlyTransaction);
+  }
+
+  @Table(name = "Singers")
+  public static class Singer {
+    @Id
+    String id;
+    String name;
+  }
+}
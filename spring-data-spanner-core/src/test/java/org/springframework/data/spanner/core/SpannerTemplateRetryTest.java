@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.SpannerException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class SpannerTemplateRetryTest {
+  private FakeDatabaseClient databaseClient;
+  private SpannerTemplate template;
+  private RecordingRetryPolicy retryPolicy;
+
+  @Before
+  public void setUp() {
+    databaseClient = new FakeDatabaseClient();
+    template = new SpannerTemplate(databaseClient, new SpannerMappingContext());
+    retryPolicy = new RecordingRetryPolicy();
+    template.setRetryPolicy(retryPolicy);
+  }
+
+  @Test
+  public void retriesAbortedWrites() {
+    databaseClient.aborts.set(2);
+
+    template.insert(singer("marc"));
+
+    assertEquals(3, databaseClient.writeAttempts.get());
+    assertEquals(1, databaseClient.writes.size());
+    assertEquals(Arrays.asList(1, 2), retryPolicy.retries);
+    SpannerRetryStatistics.TableStatistics statistics = template.getRetryStatistics().getTable("Singers");
+    assertEquals(1, statistics.getOperations());
+    assertEquals(3, statistics.getAttempts());
+    assertEquals(2, statistics.getAborts());
+  }
+
+  @Test
+  public void givesUpAfterMaxAttempts() {
+    retryPolicy.setMaxAttempts(3);
+    databaseClient.aborts.set(5);
+
+    try {
+      template.insert(singer("marc"));
+      fail("Expected the write to give up");
+    } catch (SpannerException e) {
+      assertEquals(ErrorCode.DEADLINE_EXCEEDED, e.getErrorCode());
+    }
+
+    assertEquals(3, databaseClient.writeAttempts.get());
+    assertTrue(databaseClient.writes.isEmpty());
+    SpannerRetryStatistics.TableStatistics statistics = template.getRetryStatistics().getTable("Singers");
+    assertEquals(3, statistics.getAttempts());
+    assertEquals(3, statistics.getAborts());
+  }
+
+  @Test
+  public void givesUpAtCommitDeadline() {
+    databaseClient.aborts.set(1);
+    List<Mutation> mutations = Collections.singletonList(template.getMutationFactory().insert(singer("marc")));
+
+    try {
+      template.commit(mutations, System.nanoTime());
+      fail("Expected the commit to give up");
+    } catch (SpannerException e) {
+      assertEquals(ErrorCode.DEADLINE_EXCEEDED, e.getErrorCode());
+    }
+
+    assertEquals(1, databaseClient.writeAttempts.get());
+  }
+
+  @Test
+  public void doesNotRetryOtherErrors() {
+    databaseClient.failures.set(1);
+
+    try {
+      template.insert(singer("marc"));
+      fail("Expected the write to fail");
+    } catch (SpannerException e) {
+      assertEquals(ErrorCode.UNAVAILABLE, e.getErrorCode());
+    }
+
+    assertEquals(1, databaseClient.writeAttempts.get());
+    assertTrue(retryPolicy.retries.isEmpty());
+    assertEquals(0, template.getRetryStatistics().getTable("Singers").getAborts());
+  }
+
+  @Test
+  public void retriesAbortedTransactions() {
+    databaseClient.aborts.set(1);
+    List<Integer> runs = new CopyOnWriteArrayList<>();
+
+    template.transaction(ctx -> {
+      runs.add(runs.size());
+      ctx.insert(singer("marc"));
+    });
+
+    assertEquals(2, runs.size());
+    assertEquals(Collections.singletonList(1), retryPolicy.retries);
+    assertEquals(1, databaseClient.writes.size());
+    assertEquals(1, template.getRetryStatistics().getTable("Singers").getAborts());
+  }
+
+  private static Singer singer(String id) {
+    Singer singer = new Singer();
+    singer.id = id;
+    singer.name = id;
+    return singer;
+  }
+
+  @Table(name = "Singers")
+  static class Singer {
+    @Id
+    String id;
+    String name;
+  }
+
+  /**
+   * {@link SpannerRetryPolicy} recording the retries it was asked to back off for, without waiting.
+   */
+  static class RecordingRetryPolicy extends SpannerRetryPolicy {
+    final List<Integer> retries = new CopyOnWriteArrayList<>();
+
+    @Override
+    public long getBackoffMillis(int retry) {
+      retries.add(retry);
+      return 0;
+    }
+  }
+}
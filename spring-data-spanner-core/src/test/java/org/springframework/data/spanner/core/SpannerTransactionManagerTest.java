@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core;
+
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.Assert.*;
+
+public class SpannerTransactionManagerTest {
+  private final FakeDatabaseClient databaseClient = new FakeDatabaseClient();
+  private final SpannerTemplate template = new SpannerTemplate(databaseClient, new SpannerMappingContext());
+  private final SpannerTransactionManager transactionManager = new SpannerTransactionManager(template);
+  private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+  @Test
+  public void commitsAllWritesTogether() {
+    transactionTemplate.execute(status -> {
+      template.insert(singer("a"));
+      template.insert(singer("b"));
+      assertTrue(databaseClient.writes.isEmpty());
+      return null;
+    });
+
+    assertEquals(1, databaseClient.writes.size());
+    assertEquals(2, databaseClient.writes.get(0).size());
+  }
+
+  @Test
+  public void discardsWritesOnRollback() {
+    transactionTemplate.execute(status -> {
+      template.insert(singer("a"));
+      status.setRollbackOnly();
+      return null;
+    });
+
+    assertEquals(0, databaseClient.writeAttempts.get());
+  }
+
+  @Test
+  public void discardsWritesOnException() {
+    try {
+      transactionTemplate.execute(status -> {
+        template.insert(singer("a"));
+        throw new IllegalStateException("failed");
+      });
+      fail("Expected the exception of the callback");
+    } catch (IllegalStateException e) {
+      assertEquals("failed", e.getMessage());
+    }
+
+    assertEquals(0, databaseClient.writeAttempts.get());
+  }
+
+  @Test
+  public void commitsInnerTransactionSeparately() {
+    TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    transactionTemplate.execute(status -> {
+      template.insert(singer("a"));
+      requiresNew.execute(inner -> {
+        template.insert(singer("b"));
+        return null;
+      });
+      assertEquals(1, databaseClient.writes.size());
+      status.setRollbackOnly();
+      return null;
+    });
+
+    assertEquals(1, databaseClient.writes.size());
+    assertEquals(1, databaseClient.writes.get(0).size());
+  }
+
+  @Test
+  public void retriesAbortedCommit() {
+    databaseClient.aborts.set(1);
+
+    transactionTemplate.execute(status -> {
+      template.insert(singer("a"));
+      return null;
+    });
+
+    assertEquals(2, databaseClient.writeAttempts.get());
+    assertEquals(1, databaseClient.writes.size());
+  }
+
+  @Test(expected = TransactionSystemException.class)
+  public void translatesFailedCommit() {
+    databaseClient.failures.set(1);
+
+    transactionTemplate.execute(status -> {
+      template.insert(singer("a"));
+      return null;
+    });
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rejectsWritesInReadOnlyTransaction() {
+    transactionTemplate.setReadOnly(true);
+
+    transactionTemplate.execute(status -> {
+      template.insert(singer("a"));
+      return null;
+    });
+  }
+
+  @Test
+  public void serializesWithoutTemplate() throws Exception {
+    try (ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream())) {
+      out.writeObject(transactionManager);
+    }
+  }
+
+  private static Singer singer(String id) {
+    Singer singer = new Singer();
+    singer.id = id;
+    return singer;
+  }
+
+  @Table(name = "Singers")
+  static class Singer {
+    @Id
+    String id;
+    String name;
+  }
+}
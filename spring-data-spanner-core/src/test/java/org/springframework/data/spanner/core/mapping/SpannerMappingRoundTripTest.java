@@ -0,0 +1,325 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.mapping;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Value;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.ConverterFactory;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.spanner.core.convert.SpannerCustomConversions;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SpannerMappingRoundTripTest {
+  private SpannerMappingContext mappingContext;
+  private SpannerMutationFactory mutationFactory;
+  private SpannerStructObjectMapper objectMapper;
+
+  @Before
+  public void setUp() {
+    mappingContext = new SpannerMappingContext();
+    mutationFactory = new SpannerMutationFactory(mappingContext);
+    objectMapper = new SpannerStructObjectMapper(mappingContext);
+  }
+
+  @Test
+  public void readsBackWhatWasWritten() {
+    Singer singer = new Singer();
+    singer.id = "marc";
+    singer.name = "Marc";
+    singer.plays = 42L;
+    singer.rating = 4.5;
+    singer.active = true;
+    singer.debut = Timestamp.ofTimeMicroseconds(1500000000000000L);
+    singer.counts = new long[]{10L, 20L};
+    singer.tags = Arrays.asList("piano", "vocals");
+
+    Mutation mutation = mutationFactory.insert(singer);
+    Singer read = readBack(Singer.class, mutation);
+
+    assertEquals(Mutation.Op.INSERT, mutation.getOperation());
+    assertEquals("Singers", mutation.getTable());
+    assertEquals(singer.id, read.id);
+    assertEquals(singer.name, read.name);
+    assertEquals(singer.plays, read.plays);
+    assertEquals(singer.rating, read.rating);
+    assertEquals(singer.active, read.active);
+    assertEquals(singer.debut, read.debut);
+    assertArrayEquals(singer.counts, read.counts);
+    assertEquals(singer.tags, read.tags);
+  }
+
+  @Test
+  public void readsNullValues() {
+    Singer singer = new Singer();
+    singer.id = "marc";
+
+    Singer read = readBack(Singer.class, mutationFactory.insert(singer));
+
+    assertEquals(singer.id, read.id);
+    assertNull(read.name);
+    assertNull(read.rating);
+    assertNull(read.counts);
+    assertNull(read.tags);
+    assertEquals(0L, read.plays);
+  }
+
+  @Test
+  public void readsPrimitiveArrays() {
+    Measurements measurements = new Measurements();
+    measurements.id = "m";
+    measurements.ints = new int[]{4, -5};
+    measurements.floats = new float[]{0.5f, 1.25f};
+    measurements.doubles = new double[]{0.1, 0.2};
+    measurements.booleans = new boolean[]{true, false};
+    measurements.longs = Arrays.asList(1L, null, 3L);
+
+    Measurements read = readBack(Measurements.class, mutationFactory.insert(measurements));
+
+    assertArrayEquals(measurements.ints, read.ints);
+    assertArrayEquals(measurements.floats, read.floats, 0f);
+    assertArrayEquals(measurements.doubles, read.doubles, 0);
+    assertArrayEquals(measurements.booleans, read.booleans);
+    assertEquals(measurements.longs, read.longs);
+  }
+
+  @Test(expected = SpannerDataException.class)
+  public void rejectsUnsupportedPrimitiveArrays() {
+    Struct row = Struct.newBuilder().set("id").to("a").set("counts").toInt64Array(new long[]{1L}).build();
+
+    objectMapper.getRowMapper(Counter.class, row.getType()).map(row);
+  }
+
+  @Test
+  public void narrowsValuesInRange() {
+    Struct row = Struct.newBuilder().set("id").to("s").set("points").to((long) Integer.MIN_VALUE)
+        .set("ratio").to(0.1).build();
+
+    Score read = objectMapper.getRowMapper(Score.class, row.getType()).map(row);
+
+    assertEquals(Integer.MIN_VALUE, read.points);
+    assertEquals(0.1f, read.ratio, 0f);
+  }
+
+  @Test(expected = SpannerDataException.class)
+  public void rejectsIntOverflow() {
+    Struct row = Struct.newBuilder().set("id").to("s").set("points").to(Integer.MAX_VALUE + 1L).build();
+
+    objectMapper.getRowMapper(Score.class, row.getType()).map(row);
+  }
+
+  @Test(expected = SpannerDataException.class)
+  public void rejectsFloatOverflow() {
+    Struct row = Struct.newBuilder().set("id").to("s").set("ratio").to(Double.MAX_VALUE).build();
+
+    objectMapper.getRowMapper(Score.class, row.getType()).map(row);
+  }
+
+  @Test(expected = SpannerDataException.class)
+  public void rejectsIntArrayOverflow() {
+    Struct row = Struct.newBuilder().set("id").to("m").set("ints").toInt64Array(new long[]{1L, Long.MAX_VALUE})
+        .build();
+
+    objectMapper.getRowMapper(Measurements.class, row.getType()).map(row);
+  }
+
+  @Test
+  public void readsBackConvertedValues() {
+    Release release = release();
+    release.released = Instant.ofEpochSecond(1500000000L, 123000);
+    release.day = LocalDate.of(2017, 7, 14);
+    release.price = new BigDecimal("12.99");
+    release.genre = Genre.JAZZ;
+
+    Mutation mutation = mutationFactory.insert(release);
+    Struct row = toStruct(mutation);
+    Release read = readBack(Release.class, mutation);
+
+    assertEquals(release.id.toString(), row.getString("id"));
+    assertEquals("JAZZ", row.getString("genre"));
+    assertEquals(release.id, read.id);
+    assertEquals(release.released, read.released);
+    assertEquals(release.day, read.day);
+    assertEquals(release.price, read.price);
+    assertEquals(release.genre, read.genre);
+  }
+
+  @Test
+  public void convertsKeyPartsLikeColumns() {
+    Release release = release();
+    BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(Release.class);
+
+    Key key = Key.of(release.id.toString());
+
+    assertEquals(key, persistentEntity.getKey(release));
+    assertEquals(key, persistentEntity.getKeyForId(release.id));
+    assertEquals(key, persistentEntity.getKeyForId(key));
+    assertEquals(key, persistentEntity.getKey(toStruct(mutationFactory.insert(release))));
+    assertEquals(Collections.singletonList(key), toList(mutationFactory.delete(release).getKeySet().getKeys()));
+  }
+
+  @Test
+  public void readsBackValuesWrittenByConverterFactory() {
+    mappingContext = new SpannerMappingContext();
+    mappingContext.setCustomConversions(new SpannerCustomConversions(Arrays.asList(
+        LevelToLongConverterFactory.INSTANCE, LongToLevelConverter.INSTANCE)));
+    Reading reading = new Reading();
+    reading.id = "r";
+    reading.level = new Level(7);
+
+    Mutation mutation = new SpannerMutationFactory(mappingContext).insert(reading);
+    Struct row = toStruct(mutation);
+    Reading read = new SpannerStructObjectMapper(mappingContext).getRowMapper(Reading.class, row.getType()).map(row);
+
+    assertEquals(7L, row.getLong("level"));
+    assertEquals(reading.level.value, read.level.value);
+  }
+
+  private static Release release() {
+    Release release = new Release();
+    release.id = UUID.randomUUID();
+    return release;
+  }
+
+  private static <T> List<T> toList(Iterable<T> iterable) {
+    List<T> list = new ArrayList<>();
+    for (T element : iterable) {
+      list.add(element);
+    }
+    return list;
+  }
+
+  /**
+   * Maps the values written by the mutation back onto a new instance, as if they were read from its table.
+   */
+  <T> T readBack(Class<T> entityClass, Mutation mutation) {
+    Struct row = toStruct(mutation);
+    return objectMapper.getRowMapper(entityClass, row.getType()).map(row);
+  }
+
+  static Struct toStruct(Mutation mutation) {
+    Struct.Builder builder = Struct.newBuilder();
+    for (Map.Entry<String, Value> column : mutation.asMap().entrySet()) {
+      builder.add(column.getKey(), column.getValue());
+    }
+    return builder.build();
+  }
+
+  @Table(name = "Singers")
+  public static class Singer {
+    @Id
+    String id;
+    String name;
+    long plays;
+    Double rating;
+    boolean active;
+    Timestamp debut;
+    long[] counts;
+    List<String> tags;
+  }
+
+  @Table(name = "Measurements")
+  public static class Measurements {
+    @Id
+    String id;
+    int[] ints;
+    float[] floats;
+    double[] doubles;
+    boolean[] booleans;
+    List<Long> longs;
+  }
+
+  @Table(name = "Scores")
+  public static class Score {
+    @Id
+    String id;
+    int points;
+    float ratio;
+  }
+
+  @Table(name = "Counters")
+  public static class Counter {
+    @Id
+    String id;
+    short[] counts;
+  }
+
+  public static class Level {
+    final long value;
+
+    Level(long value) {
+      this.value = value;
+    }
+  }
+
+  enum LevelToLongConverterFactory implements ConverterFactory<Level, Long> {
+    INSTANCE;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Long> Converter<Level, T> getConverter(Class<T> targetType) {
+      return level -> (T) Long.valueOf(level.value);
+    }
+  }
+
+  enum LongToLevelConverter implements Converter<Long, Level> {
+    INSTANCE;
+
+    @Override
+    public Level convert(Long source) {
+      return new Level(source);
+    }
+  }
+
+  @Table(name = "Readings")
+  public static class Reading {
+    @Id
+    String id;
+    Level level;
+  }
+
+  enum Genre {
+    JAZZ, POP
+  }
+
+  @Table(name = "Releases")
+  public static class Release {
+    @Id
+    UUID id;
+    Instant released;
+    LocalDate day;
+    BigDecimal price;
+    Genre genre;
+  }
+}
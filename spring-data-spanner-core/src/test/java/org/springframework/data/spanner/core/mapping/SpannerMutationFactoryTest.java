@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.mapping;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.Mutation;
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SpannerMutationFactoryTest {
+  private final SpannerMutationFactory mutationFactory = new SpannerMutationFactory(new SpannerMappingContext());
+
+  @Test
+  public void writesChildrenWithParent() {
+    List<Mutation> mutations = mutationFactory.createMutations(Mutation.Op.INSERT, album());
+
+    assertEquals(3, mutations.size());
+    assertEquals("Albums", mutations.get(0).getTable());
+    assertEquals(Arrays.asList("albumId", "title"), columns(mutations.get(0)));
+    assertEquals(Mutation.Op.INSERT, mutations.get(1).getOperation());
+    assertEquals("Tracks", mutations.get(1).getTable());
+    assertEquals(Arrays.asList("albumId", "trackId", "title"), columns(mutations.get(1)));
+  }
+
+  @Test
+  public void upsertsChildrenOfUpdatedParent() {
+    List<Mutation> mutations = mutationFactory.createMutations(Mutation.Op.UPDATE, album());
+
+    assertEquals(3, mutations.size());
+    assertEquals(Mutation.Op.UPDATE, mutations.get(0).getOperation());
+    assertEquals(Mutation.Op.INSERT_OR_UPDATE, mutations.get(1).getOperation());
+  }
+
+  @Test
+  public void partialUpdateOnlyWritesNamedProperties() {
+    List<Mutation> mutations = mutationFactory.createMutations(Mutation.Op.UPDATE, album(), "title");
+
+    assertEquals(1, mutations.size());
+    assertEquals(Arrays.asList("albumId", "title"), columns(mutations.get(0)));
+  }
+
+  @Test
+  public void partialUpdateOnlyWritesNamedChildren() {
+    List<Mutation> mutations = mutationFactory.createMutations(Mutation.Op.UPDATE, album(), "tracks");
+
+    assertEquals(3, mutations.size());
+    assertEquals(Collections.singletonList("albumId"), columns(mutations.get(0)));
+    assertEquals("Tracks", mutations.get(1).getTable());
+  }
+
+  @Test
+  public void propertiesOnlyApplyToUpdates() {
+    List<Mutation> mutations = mutationFactory.createMutations(Mutation.Op.INSERT_OR_UPDATE, album(), "title");
+
+    assertEquals(3, mutations.size());
+    assertEquals(Arrays.asList("albumId", "title"), columns(mutations.get(0)));
+  }
+
+  @Test
+  public void skipsUnloadedLazyChildren() {
+    Playlist playlist = new Playlist();
+    playlist.playlistId = 1L;
+    playlist.tracks = new SpannerLazyList<>(() -> {
+      throw new AssertionError("lazy children must not be loaded to be written");
+    });
+
+    List<Mutation> mutations = mutationFactory.createMutations(Mutation.Op.INSERT_OR_UPDATE, playlist);
+
+    assertEquals(1, mutations.size());
+  }
+
+  @Test
+  public void deletesByKey() {
+    Mutation mutation = mutationFactory.delete(album());
+
+    assertEquals(Mutation.Op.DELETE, mutation.getOperation());
+    assertEquals(Collections.singletonList(Key.of(1L)), toList(mutation.getKeySet().getKeys()));
+  }
+
+  private static Album album() {
+    Album album = new Album();
+    album.albumId = 1L;
+    album.title = "Blue";
+    album.tracks = new ArrayList<>();
+    for (long i = 1; i <= 2; i++) {
+      Track track = new Track();
+      track.albumId = 1L;
+      track.trackId = i;
+      track.title = "Track " + i;
+      album.tracks.add(track);
+    }
+    return album;
+  }
+
+  private static List<String> columns(Mutation mutation) {
+    return toList(mutation.getColumns());
+  }
+
+  private static <T> List<T> toList(Iterable<T> iterable) {
+    List<T> list = new ArrayList<>();
+    for (T element : iterable) {
+      list.add(element);
+    }
+    return list;
+  }
+
+  @Table(name = "Albums")
+  static class Album {
+    @Id
+    Long albumId;
+    String title;
+    @Interleaved
+    List<Track> tracks;
+  }
+
+  @Table(name = "Playlists")
+  static class Playlist {
+    @Id
+    Long playlistId;
+    @Interleaved(lazy = true)
+    List<Track> tracks;
+  }
+
+  @Table(name = "Tracks")
+  static class Track {
+    @PrimaryKey(keyOrder = 1)
+    Long albumId;
+    @PrimaryKey(keyOrder = 2)
+    Long trackId;
+    String title;
+  }
+}
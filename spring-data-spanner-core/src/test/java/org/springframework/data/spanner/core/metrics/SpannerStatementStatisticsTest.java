@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.core.metrics;
+
+import org.junit.Test;
+import org.springframework.data.spanner.core.metrics.SpannerStatementStatistics.StatementStatistics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SpannerStatementStatisticsTest {
+  private final SpannerStatementStatistics statistics = new SpannerStatementStatistics();
+
+  @Test
+  public void replacesLiteralsButKeepsIdentifiersAndParameters() {
+    assertEquals("SELECT * FROM `Table1` WHERE a = ? AND b = ? AND c = ? AND d = @p0 LIMIT ?",
+        SpannerStatementStatistics.normalize(
+            "SELECT *  FROM `Table1`\n WHERE a = 'it\\'s' AND b = 4.2e3 AND c = \"x\" AND d = @p0 LIMIT 10"));
+  }
+
+  @Test
+  public void aggregatesStatementsDifferingInLiterals() {
+    statistics.record("SELECT name FROM Singers WHERE id = 'a'", millis(3), 1, true);
+    statistics.record("SELECT name FROM Singers WHERE id = 'b'", millis(5), 2, false);
+
+    assertEquals(1, statistics.getStatements().size());
+    StatementStatistics statement = statistics.getStatements().get("SELECT name FROM Singers WHERE id = ?");
+    assertEquals(2, statement.getCount());
+    assertEquals(1, statement.getErrors());
+    assertEquals(millis(8), statement.getTotalNanos());
+    assertEquals(millis(5), statement.getMaxNanos());
+    assertEquals(3, statement.getRows());
+  }
+
+  @Test
+  public void ordersTopStatementsByTotalLatency() {
+    statistics.record("SELECT 1 FROM Albums", millis(4), 1, true);
+    statistics.record("SELECT 1 FROM Singers", millis(3), 1, true);
+    statistics.record("SELECT 1 FROM Singers", millis(3), 1, true);
+    statistics.record("SELECT 1 FROM Tracks", millis(1), 1, true);
+
+    List<StatementStatistics> top = statistics.getTopStatements(2);
+
+    assertEquals(2, top.size());
+    assertEquals("SELECT ? FROM Singers", top.get(0).getSql());
+    assertEquals("SELECT ? FROM Albums", top.get(1).getSql());
+  }
+
+  @Test
+  public void tracksAtMostMaxStatements() {
+    statistics.setMaxStatements(1);
+
+    statistics.record("SELECT 1 FROM Albums", millis(1), 1, true);
+    statistics.record("SELECT 1 FROM Singers", millis(1), 1, true);
+    statistics.record("SELECT 2 FROM Albums", millis(1), 1, true);
+
+    assertEquals(1, statistics.getStatements().size());
+    assertEquals(2, statistics.getStatements().get("SELECT ? FROM Albums").getCount());
+  }
+
+  @Test
+  public void forgetsStatementsOnReset() {
+    statistics.record("SELECT 1 FROM Albums", millis(1), 1, true);
+
+    statistics.reset();
+
+    assertTrue(statistics.getStatements().isEmpty());
+  }
+
+  private static long millis(long millis) {
+    return TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.query;
+
+import com.google.cloud.spanner.Options;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.TimestampBound;
+import org.junit.Test;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.data.spanner.core.SpannerTemplate;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+import org.springframework.data.spanner.repository.StaleRead;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PartTreeSpannerQueryTest {
+  private final RecordingSpannerTemplate template = new RecordingSpannerTemplate();
+
+  @Test
+  public void countsWithStaleReadBound() {
+    template.count = 2;
+
+    assertEquals(2L, execute("countByName", "Marc"));
+    assertEquals(TimestampBound.ofMaxStaleness(15, TimeUnit.SECONDS), template.bound);
+    assertEquals("SELECT COUNT(*) FROM Singers WHERE name = @p0", template.statement.getSql());
+  }
+
+  @Test
+  public void checksExistenceWithStaleReadBound() {
+    template.count = 1;
+
+    assertEquals(true, execute("existsByName", "Marc"));
+    assertEquals(TimestampBound.ofMaxStaleness(15, TimeUnit.SECONDS), template.bound);
+  }
+
+  @Test
+  public void countsWithStrongReadWithoutStaleRead() {
+    template.count = 0;
+
+    assertEquals(0L, execute("countByAge", 30L));
+    assertNull(template.bound);
+  }
+
+  @Test
+  public void returnsSingleResult() {
+    Singer singer = new Singer();
+    template.results.add(singer);
+
+    assertSame(singer, execute("findByName", "Marc"));
+  }
+
+  @Test
+  public void returnsNullWithoutResult() {
+    assertNull(execute("findByName", "Marc"));
+  }
+
+  @Test(expected = IncorrectResultSizeDataAccessException.class)
+  public void rejectsMultipleRowsForSingleResult() {
+    template.results.addAll(Arrays.asList(new Singer(), new Singer()));
+
+    execute("findByName", "Marc");
+  }
+
+  @Test
+  public void returnsAllRowsForCollection() {
+    template.results.addAll(Arrays.asList(new Singer(), new Singer()));
+
+    assertEquals(template.results, execute("findByAge", 30L));
+  }
+
+  @Test
+  public void rejectsNullForEquality() {
+    try {
+      execute("findByName", (Object) null);
+      fail("Expected a null argument to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("IsNull"));
+    }
+    assertNull(template.statement);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNullForInequality() {
+    execute("findByNameNot", (Object) null);
+  }
+
+  @Test
+  public void acceptsNullForOtherComparisons() {
+    execute("findByNameLike", (Object) null);
+
+    assertEquals("SELECT id, name, age FROM Singers WHERE name LIKE @p0", template.statement.getSql());
+  }
+
+  private Object execute(String methodName, Object... parameters) {
+    PartTreeSpannerQuery query = new PartTreeSpannerQuery(queryMethod(methodName), template);
+    return query.execute(parameters);
+  }
+
+  private static SpannerQueryMethod queryMethod(String methodName) {
+    for (Method method : SingerRepository.class.getMethods()) {
+      if (method.getName().equals(methodName)) {
+        return new SpannerQueryMethod(method, new DefaultRepositoryMetadata(SingerRepository.class),
+            new SpelAwareProxyProjectionFactory());
+      }
+    }
+    throw new IllegalArgumentException(methodName);
+  }
+
+  interface SingerRepository extends Repository<Singer, String> {
+    Singer findByName(String name);
+
+    List<Singer> findByAge(long age);
+
+    List<Singer> findByNameNot(String name);
+
+    List<Singer> findByNameLike(String name);
+
+    @StaleRead(15)
+    long countByName(String name);
+
+    @StaleRead(15)
+    boolean existsByName(String name);
+
+    long countByAge(long age);
+  }
+
+  @Table(name = "Singers")
+  static class Singer {
+    @Id
+    String id;
+    String name;
+    long age;
+  }
+
+  /**
+   * {@link SpannerTemplate} answering queries with fixed results instead of reading from Spanner.
+   */
+  static class RecordingSpannerTemplate extends SpannerTemplate {
+    final List<Object> results = new ArrayList<>();
+    long count;
+    Statement statement;
+    TimestampBound bound;
+
+    RecordingSpannerTemplate() {
+      super(null, new SpannerMappingContext());
+    }
+
+    @Override
+    public long count(Statement statement) {
+      this.statement = statement;
+      return count;
+    }
+
+    @Override
+    public long count(Statement statement, TimestampBound bound) {
+      this.bound = bound;
+      return count(statement);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> find(Class<T> entityClass, Statement statement, Options.QueryOption... options) {
+      this.statement = statement;
+      return (List<T>) Collections.unmodifiableList(results);
+    }
+
+    @Override
+    public <T> List<T> find(Class<T> entityClass, Statement statement, TimestampBound bound,
+                            Options.QueryOption... options) {
+      this.bound = bound;
+      return find(entityClass, statement, options);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.query;
+
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.spanner.core.mapping.BasicSpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.SpannerDataException;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SpannerQueryCreatorTest {
+  private final SpannerMappingContext mappingContext = new SpannerMappingContext();
+
+  @Test
+  public void selectsColumnsOfMatchingRows() {
+    assertEquals("SELECT id, name, age, label FROM Singers WHERE name = @p0 AND age > @p1 ORDER BY age DESC",
+        sql("findByNameAndAgeGreaterThanOrderByAgeDesc"));
+  }
+
+  @Test
+  public void countsMatchingRows() {
+    assertEquals("SELECT COUNT(*) FROM Singers WHERE name = @p0", sql("countByName"));
+  }
+
+  @Test
+  public void stopsAtFirstRowForExists() {
+    assertEquals("SELECT COUNT(*) FROM (SELECT 1 FROM Singers WHERE name = @p0 LIMIT 1)", sql("existsByName"));
+  }
+
+  @Test
+  public void limitsRows() {
+    assertEquals("SELECT id, name, age, label FROM Singers WHERE name = @p0 LIMIT 2", sql("findTop2ByName"));
+  }
+
+  @Test
+  public void lowersStringsToIgnoreCase() {
+    assertEquals("SELECT id, name, age, label FROM Singers WHERE LOWER(name) = LOWER(@p0)",
+        sql("findByNameIgnoreCase"));
+  }
+
+  @Test
+  public void ignoresCaseOfConvertedStrings() {
+    assertEquals("SELECT id, name, age, label FROM Singers WHERE LOWER(label) = LOWER(@p0)",
+        sql("findByLabelIgnoreCase"));
+  }
+
+  @Test
+  public void appliesAllIgnoreCaseToStringsOnly() {
+    assertEquals("SELECT id, name, age, label FROM Singers WHERE LOWER(name) = LOWER(@p0) AND age = @p1",
+        sql("findByNameAndAgeAllIgnoreCase"));
+  }
+
+  @Test(expected = SpannerDataException.class)
+  public void rejectsIgnoreCaseOnNonStrings() {
+    sql("findByAgeIgnoreCase");
+  }
+
+  private String sql(String methodName) {
+    BasicSpannerPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(Singer.class);
+    return new SpannerQueryCreator(new PartTree(methodName, Singer.class), persistentEntity,
+        persistentEntity.columns(), mappingContext.getCustomConversions()).createQuery();
+  }
+
+  @Table(name = "Singers")
+  static class Singer {
+    @Id
+    String id;
+    String name;
+    long age;
+    UUID label;
+  }
+}
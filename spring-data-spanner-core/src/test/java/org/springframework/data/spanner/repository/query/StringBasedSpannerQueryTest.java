@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.query;
+
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.spanner.core.SpannerTemplate;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.Table;
+import org.springframework.data.spanner.repository.Query;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StringBasedSpannerQueryTest {
+  private static final String SELECT_ALL = "SELECT * FROM Singers WHERE name = @name";
+  private static final String JOIN =
+      "SELECT * FROM Singers s JOIN Albums a ON s.id = a.singerId WHERE s.name = @name";
+
+  private final SpannerTemplate template = new SpannerTemplate(null, new SpannerMappingContext());
+
+  @Test
+  public void detectsSelectAllFromSingleTable() {
+    assertTrue(StringBasedSpannerQuery.isSingleTableSelectAll("SELECT * FROM Singers"));
+    assertTrue(StringBasedSpannerQuery.isSingleTableSelectAll(SELECT_ALL));
+    assertTrue(StringBasedSpannerQuery.isSingleTableSelectAll("select * from `Singers` s where s.name = @name"));
+    assertTrue(StringBasedSpannerQuery.isSingleTableSelectAll("SELECT * FROM Singers AS s ORDER BY s.name"));
+    assertTrue(StringBasedSpannerQuery.isSingleTableSelectAll("SELECT * FROM Singers LIMIT 10"));
+  }
+
+  @Test
+  public void keepsOtherStatementsAsDeclared() {
+    assertFalse(StringBasedSpannerQuery.isSingleTableSelectAll(JOIN));
+    assertFalse(StringBasedSpannerQuery.isSingleTableSelectAll("SELECT * FROM Singers, Albums"));
+    assertFalse(StringBasedSpannerQuery.isSingleTableSelectAll("SELECT * FROM Singers CROSS JOIN Albums"));
+    assertFalse(StringBasedSpannerQuery.isSingleTableSelectAll(
+        "SELECT * FROM Singers WHERE name = @name UNION ALL SELECT * FROM Singers WHERE age > 30"));
+    assertFalse(StringBasedSpannerQuery.isSingleTableSelectAll("SELECT * FROM (SELECT * FROM Singers)"));
+    assertFalse(StringBasedSpannerQuery.isSingleTableSelectAll("SELECT name FROM Singers"));
+  }
+
+  @Test
+  public void selectsProjectedColumns() {
+    assertEquals("SELECT name FROM Singers WHERE name = @name", sql("findNamesByName"));
+  }
+
+  @Test
+  public void keepsSelectAllForEntities() {
+    assertEquals(SELECT_ALL, sql("findByName"));
+  }
+
+  @Test
+  public void keepsSelectAllForJoinedProjections() {
+    assertEquals(JOIN, sql("findJoinedNamesByName"));
+  }
+
+  @Test
+  public void resolvesNamedParametersOutsideLiterals() {
+    assertEquals(new LinkedHashSet<>(Arrays.asList("name", "age")), StringBasedSpannerQuery.parameterNames(
+        "SELECT * FROM Singers WHERE name = @name AND email != 'a@b.c' AND `a@b` > @age AND age > @age"));
+  }
+
+  private String sql(String methodName) {
+    SpannerQueryMethod queryMethod = queryMethod(methodName);
+    StringBasedSpannerQuery query = new StringBasedSpannerQuery(queryMethod, template);
+    return query.getSql(queryMethod.getResultProcessor().getReturnedType());
+  }
+
+  private static SpannerQueryMethod queryMethod(String methodName) {
+    for (Method method : SingerRepository.class.getMethods()) {
+      if (method.getName().equals(methodName)) {
+        return new SpannerQueryMethod(method, new DefaultRepositoryMetadata(SingerRepository.class),
+            new SpelAwareProxyProjectionFactory());
+      }
+    }
+    throw new IllegalArgumentException(methodName);
+  }
+
+  interface SingerRepository extends Repository<Singer, String> {
+    @Query(SELECT_ALL)
+    List<Singer> findByName(@Param("name") String name);
+
+    @Query(SELECT_ALL)
+    List<NameOnly> findNamesByName(@Param("name") String name);
+
+    @Query(JOIN)
+    List<NameOnly> findJoinedNamesByName(@Param("name") String name);
+  }
+
+  interface NameOnly {
+    String getName();
+  }
+
+  @Table(name = "Singers")
+  static class Singer {
+    @Id
+    String id;
+    String name;
+    long age;
+  }
+}
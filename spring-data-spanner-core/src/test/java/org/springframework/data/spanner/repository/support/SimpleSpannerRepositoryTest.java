@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017 Google Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.data.spanner.repository.support;
+
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeyRange;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.Options;
+import org.junit.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.spanner.core.SpannerTemplate;
+import org.springframework.data.spanner.core.mapping.SpannerMappingContext;
+import org.springframework.data.spanner.core.mapping.SpannerPersistentEntity;
+import org.springframework.data.spanner.core.mapping.Table;
+import org.springframework.data.spanner.repository.KeysetPage;
+import org.springframework.data.spanner.repository.KeysetPageRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SimpleSpannerRepositoryTest {
+  private final RecordingSpannerTemplate template = new RecordingSpannerTemplate();
+  private final SimpleSpannerRepository<Singer, String> repository = new SimpleSpannerRepository<>(
+      new MappingSpannerEntityInformation<>(entity(template)), template);
+
+  @Test
+  public void readsFirstPageFromStartOfTable() {
+    template.rows.addAll(Arrays.asList(singer("a"), singer("b"), singer("c")));
+
+    KeysetPage<Singer> page = repository.findAll(new KeysetPageRequest(2));
+
+    assertEquals(KeySet.all(), template.keys);
+    assertEquals(2, page.getNumberOfElements());
+    assertTrue(page.hasNext());
+    assertEquals(Key.of("b"), page.getLastKey());
+    assertEquals(new KeysetPageRequest(1, 2, Key.of("b")), page.nextKeysetPageRequest());
+  }
+
+  @Test
+  public void readsNextPageAfterLastKey() {
+    template.rows.add(singer("c"));
+
+    KeysetPage<Singer> page = repository.findAll(new KeysetPageRequest(1, 2, Key.of("b")));
+
+    // the range excludes the last key of the previous page and runs to the end of the table
+    assertEquals(KeySet.range(KeyRange.openClosed(Key.of("b"), Key.of())), template.keys);
+    assertFalse(page.hasNext());
+    assertNull(page.nextKeysetPageRequest());
+    assertEquals(Key.of("c"), page.getLastKey());
+  }
+
+  @Test
+  public void keepsLastKeyOfEmptyPage() {
+    KeysetPage<Singer> page = repository.findAll(new KeysetPageRequest(1, 2, Key.of("b")));
+
+    assertFalse(page.hasContent());
+    assertEquals(Key.of("b"), page.getLastKey());
+  }
+
+  @Test
+  public void tellsTotalOfLastPageWithoutCounting() {
+    template.rows.add(singer("c"));
+
+    KeysetPage<Singer> page = repository.findAll(new KeysetPageRequest(1, 2, Key.of("b")));
+
+    assertEquals(3L, page.getTotalElements());
+    assertEquals(2, page.getTotalPages());
+    assertEquals(0, template.counts);
+  }
+
+  @Test
+  public void countsTotalOnceWhenRequested() {
+    template.rows.addAll(Arrays.asList(singer("a"), singer("b"), singer("c")));
+    template.count = 10;
+
+    KeysetPage<Singer> page = repository.findAll(new KeysetPageRequest(2));
+    assertEquals(0, template.counts);
+
+    assertEquals(10L, page.getTotalElements());
+    assertEquals(10L, page.getTotalElements());
+    assertEquals(1, template.counts);
+  }
+
+  @Test
+  public void offersEquivalentOffsetPageables() {
+    template.rows.addAll(Arrays.asList(singer("a"), singer("b"), singer("c")));
+
+    KeysetPage<Singer> page = repository.findAll(new KeysetPageRequest(1, 2, Key.of("b")));
+
+    assertEquals(new PageRequest(0, 2), page.previousPageable());
+    assertEquals(new PageRequest(2, 2), page.nextPageable());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static SpannerPersistentEntity<Singer> entity(SpannerTemplate template) {
+    return (SpannerPersistentEntity<Singer>) template.getMappingContext().getPersistentEntity(Singer.class);
+  }
+
+  private static Singer singer(String id) {
+    Singer singer = new Singer();
+    singer.id = id;
+    return singer;
+  }
+
+  @Table(name = "Singers")
+  static class Singer {
+    @Id
+    String id;
+  }
+
+  /**
+   * {@link SpannerTemplate} answering key set reads with fixed rows, at most as many as the limit.
+   */
+  static class RecordingSpannerTemplate extends SpannerTemplate {
+    final List<Object> rows = new ArrayList<>();
+    KeySet keys;
+    long count;
+    int counts;
+
+    RecordingSpannerTemplate() {
+      super(null, new SpannerMappingContext());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> find(Class<T> entityClass, KeySet keys, Options.ReadOption... options) {
+      this.keys = keys;
+      return (List<T>) Collections.unmodifiableList(rows);
+    }
+
+    @Override
+    public <T> long count(Class<T> entityClass) {
+      counts++;
+      return count;
+    }
+  }
+}